@@ -23,6 +23,8 @@ import javax.sql.DataSource;
 
 import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
 import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TableDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TypeInfo;
 import org.eclipse.daanse.common.jdbc.db.api.sql.CatalogReference;
@@ -30,6 +32,7 @@ import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.SchemaReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SqlStatement;
 
 /**
  * Service that helps to communicate with the Database.
@@ -322,4 +325,50 @@ public interface DatabaseService {
      */
     List<ImportedKey> getImportedKeys(DatabaseMetaData databaseMetaData, TableReference table) throws SQLException;
 
+    /**
+     * returns the {@link SchemaModel} of all tables of the given
+     * {@link SchemaReference}.
+     *
+     * @param databaseMetaData
+     * @param schema
+     * @return
+     * @throws SQLException
+     */
+    SchemaModel getSchemaModel(DatabaseMetaData databaseMetaData, SchemaReference schema) throws SQLException;
+
+    /**
+     * returns the {@link SchemaModel} of all tables with the given filter. Tables,
+     * columns and imported keys are read with one metadata query each and
+     * grouped by table, instead of one query per table.
+     *
+     * @param databaseMetaData
+     * @param catalog
+     * @param schemaPattern
+     * @param types
+     * @return
+     * @throws SQLException
+     */
+    SchemaModel getSchemaModel(DatabaseMetaData databaseMetaData, String catalog, String schemaPattern,
+            String[] types) throws SQLException;
+
+    /**
+     * returns the tables, columns and imported keys that are added, removed or
+     * altered in the target {@link SchemaModel} compared to the source.
+     *
+     * @param source
+     * @param target
+     * @return
+     */
+    SchemaDiff diffSchemaModels(SchemaModel source, SchemaModel target);
+
+    /**
+     * returns the {@link SqlStatement}s that change the source of the
+     * {@link SchemaDiff} into its target. They are written with a
+     * {@link SqlStatementGenerator}.
+     *
+     * @param schemaDiff
+     * @return
+     */
+    List<SqlStatement> getDdlStatements(SchemaDiff schemaDiff);
+
 }
@@ -0,0 +1,53 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.sql.SchemaReference;
+
+/**
+ * Reads the {@link SchemaModel} of many schemas in parallel. The schemas are
+ * spread over a bounded count of connections of the {@link DataSource}, the
+ * models of all schemas are merged into one.
+ */
+public interface MetaDataCrawler {
+
+    /**
+     * Crawls all schemas of the database. Databases without schemas are crawled
+     * per catalog.
+     *
+     * @param dataSource
+     * @param types      of the tables, empty for all
+     * @return SchemaModel with the tables of all schemas
+     * @throws SQLException
+     */
+    SchemaModel crawl(DataSource dataSource, List<String> types) throws SQLException;
+
+    /**
+     * Crawls the given schemas.
+     *
+     * @param dataSource
+     * @param schemas
+     * @param types      of the tables, empty for all
+     * @return SchemaModel with the tables of the schemas in the given order
+     * @throws SQLException
+     */
+    SchemaModel crawl(DataSource dataSource, List<SchemaReference> schemas, List<String> types)
+            throws SQLException;
+}
@@ -0,0 +1,55 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+
+/**
+ * Shared snapshots of the {@link MetaInfo} of {@link DataSource}s. Reading the
+ * {@link MetaInfo} needs many round trips to the database, so every consumer
+ * should get it here instead of calling
+ * {@link DatabaseService#createMetaInfo(DataSource)} on its own.
+ */
+public interface MetaInfoCache {
+
+    /**
+     * Returns the snapshot of the database behind the {@link DataSource}. The
+     * snapshot is read once and shared by all {@link DataSource}s with the same
+     * URL and user until it expires or is invalidated.
+     *
+     * @param dataSource to be used to read the {@link MetaInfo} if there is no
+     *                   valid snapshot.
+     * @return MetaInfo
+     * @throws SQLException
+     */
+    MetaInfo getMetaInfo(DataSource dataSource) throws SQLException;
+
+    /**
+     * Drops the snapshot of the database behind the {@link DataSource}, e.g.
+     * after its catalogs changed. The next call of
+     * {@link #getMetaInfo(DataSource)} reads it again.
+     *
+     * @param dataSource
+     */
+    void invalidate(DataSource dataSource);
+
+    /**
+     * Drops all snapshots.
+     */
+    void invalidateAll();
+}
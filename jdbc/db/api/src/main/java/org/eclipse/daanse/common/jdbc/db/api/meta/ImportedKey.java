@@ -14,6 +14,7 @@
 package org.eclipse.daanse.common.jdbc.db.api.meta;
 
 import java.sql.DatabaseMetaData;
+import java.util.Optional;
 
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 
@@ -38,4 +39,20 @@ public interface ImportedKey {
      */
     ColumnReference foreignKeyColumn();
 
+    /**
+     * The name of the foreign key constraint, {@code FK_NAME}. The rows of one
+     * composite key share it.
+     *
+     * @return
+     */
+    Optional<String> name();
+
+    /**
+     * The position of the column in the foreign key, {@code KEY_SEQ}, starting
+     * with 1.
+     *
+     * @return
+     */
+    int keySequence();
+
 }
@@ -0,0 +1,75 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Differences between a source and a target {@link SchemaModel}. Tables are
+ * matched by catalog, schema and name, columns by name.
+ */
+public interface SchemaDiff {
+
+    /**
+     * Tables of the target that are missing in the source.
+     *
+     * @return
+     */
+    List<TableModel> addedTables();
+
+    /**
+     * Tables of the source that are missing in the target.
+     *
+     * @return
+     */
+    List<TableModel> removedTables();
+
+    /**
+     * Tables of both models with different columns or keys.
+     *
+     * @return
+     */
+    List<TableDiff> alteredTables();
+
+    public interface TableDiff {
+
+        /**
+         * The table of the target.
+         *
+         * @return
+         */
+        TableReference table();
+
+        List<ColumnDefinition> addedColumns();
+
+        List<ColumnDefinition> removedColumns();
+
+        /**
+         * Columns with a different type, size or decimal digits, as defined in
+         * the target.
+         *
+         * @return
+         */
+        List<ColumnDefinition> alteredColumns();
+
+        List<ImportedKey> addedKeys();
+
+        List<ImportedKey> removedKeys();
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+
+/**
+ * Immutable snapshot of the tables of a schema with their columns and keys.
+ */
+public interface SchemaModel {
+
+    /**
+     * The tables in the order the database returned them.
+     *
+     * @return
+     */
+    List<TableModel> tables();
+
+    public interface TableModel {
+
+        TableDefinition definition();
+
+        /**
+         * The columns in ordinal position.
+         *
+         * @return
+         */
+        List<ColumnDefinition> columns();
+
+        /**
+         * The keys that reference other tables.
+         *
+         * @return
+         */
+        List<ImportedKey> importedKeys();
+    }
+
+}
@@ -0,0 +1,27 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Adds a column to an existing table.
+ */
+public non-sealed interface AddColumnSqlStatement extends SqlStatement {
+
+    TableReference table();
+
+    ColumnDefinition columnDefinition();
+}
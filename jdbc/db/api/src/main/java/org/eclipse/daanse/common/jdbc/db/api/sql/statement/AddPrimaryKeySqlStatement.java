@@ -0,0 +1,32 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Adds a primary key constraint to an existing table.
+ */
+public non-sealed interface AddPrimaryKeySqlStatement extends SqlStatement {
+
+    TableReference table();
+
+    Optional<String> constraintName();
+
+    List<ColumnReference> columns();
+}
@@ -0,0 +1,28 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Changes the data type of a column of an existing table to the type of the
+ * {@link ColumnDefinition}.
+ */
+public non-sealed interface AlterColumnTypeSqlStatement extends SqlStatement {
+
+    TableReference table();
+
+    ColumnDefinition columnDefinition();
+}
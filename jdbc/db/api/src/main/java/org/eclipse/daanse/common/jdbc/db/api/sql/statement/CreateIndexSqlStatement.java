@@ -0,0 +1,36 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Creates an index on columns of a table. The index is created in the schema of
+ * the table.
+ */
+public non-sealed interface CreateIndexSqlStatement extends SqlStatement {
+
+    String indexName();
+
+    TableReference table();
+
+    List<ColumnReference> columns();
+
+    boolean unique();
+
+    boolean ifNotExists();
+}
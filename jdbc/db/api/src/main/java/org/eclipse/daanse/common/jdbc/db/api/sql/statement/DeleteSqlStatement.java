@@ -0,0 +1,34 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Deletes the rows of the table where every column of {@link #whereColumns()}
+ * equals the value with the same index of {@link #whereValues()}. Without
+ * columns all rows are deleted.
+ */
+public non-sealed interface DeleteSqlStatement extends SqlStatement {
+
+    TableReference table();
+
+    List<ColumnReference> whereColumns();
+
+    List<String> whereValues();
+
+}
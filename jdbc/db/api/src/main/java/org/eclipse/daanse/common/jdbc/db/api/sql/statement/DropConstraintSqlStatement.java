@@ -0,0 +1,26 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Drops a named constraint, e.g. a foreign key, of an existing table.
+ */
+public non-sealed interface DropConstraintSqlStatement extends SqlStatement {
+
+    TableReference table();
+
+    String constraintName();
+}
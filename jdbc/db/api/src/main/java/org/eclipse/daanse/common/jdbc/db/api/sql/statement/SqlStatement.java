@@ -14,6 +14,9 @@
 package org.eclipse.daanse.common.jdbc.db.api.sql.statement;
 
 public sealed interface SqlStatement permits DropContainerSqlStatement, CreateSqlStatement, CreateSchemaSqlStatement,
-        TruncateTableSqlStatement, DropSchemaSqlStatement, InsertSqlStatement {
+        TruncateTableSqlStatement, DropSchemaSqlStatement, InsertSqlStatement, DeleteSqlStatement, SelectSqlStatement,
+        RenameContainerSqlStatement, CreateIndexSqlStatement, AddPrimaryKeySqlStatement, AddColumnSqlStatement,
+        DropColumnSqlStatement, AlterColumnTypeSqlStatement, AddForeignKeySqlStatement,
+        DropConstraintSqlStatement {
 
 }
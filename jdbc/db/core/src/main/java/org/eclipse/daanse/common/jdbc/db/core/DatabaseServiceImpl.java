@@ -19,8 +19,12 @@ import java.sql.JDBCType;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -30,6 +34,9 @@ import org.eclipse.daanse.common.jdbc.db.api.meta.DatabaseInfo;
 import org.eclipse.daanse.common.jdbc.db.api.meta.IdentifierInfo;
 import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
 import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TableDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TableDefinition.TableMetaData;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TypeInfo;
@@ -40,12 +47,15 @@ import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.SchemaReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SqlStatement;
 import org.eclipse.daanse.common.jdbc.db.record.meta.DatabaseInfoR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.IdentifierInfoR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.ImportedKeyR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.MetaInfoR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.SchemaModelR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.TableDefinitionR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.TableMetaDataR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.TableModelR;
 import org.eclipse.daanse.common.jdbc.db.record.meta.TypeInfoR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.CatalogReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
@@ -208,32 +218,35 @@ public class DatabaseServiceImpl implements DatabaseService {
         List<TableDefinition> tabeDefinitions = new ArrayList<>();
         try (ResultSet rs = databaseMetaData.getTables(catalog, schemaPattern, tableNamePattern, types)) {
             while (rs.next()) {
-                final Optional<String> oCatalogName = Optional.ofNullable(rs.getString("TABLE_CAT"));
-                final Optional<String> oSchemaName = Optional.ofNullable(rs.getString("TABLE_SCHEM"));
-                final String tableName = rs.getString("TABLE_NAME");
-                final String tableType = rs.getString("TABLE_TYPE");
-                final Optional<String> oRemarks = Optional.ofNullable(rs.getString("REMARKS"));
-                final Optional<String> oTypeCat = Optional.ofNullable(rs.getString("TYPE_CAT"));
-                final Optional<String> oTypeSchema = Optional.ofNullable(rs.getString("TYPE_SCHEM"));
-                final Optional<String> oTypeName = Optional.ofNullable(rs.getString("TYPE_NAME"));
-                final Optional<String> oSelfRefColName = Optional.ofNullable(rs.getString("SELF_REFERENCING_COL_NAME"));
-                final Optional<String> oRefGen = Optional.ofNullable(rs.getString("REF_GENERATION"));
-
-                Optional<CatalogReference> oCatRef = oCatalogName.map(cn -> new CatalogReferenceR(cn));
-                Optional<SchemaReference> oSchemaRef = oSchemaName.map(sn -> new SchemaReferenceR(oCatRef, sn));
-
-                TableReference tableReference = new TableReferenceR(oSchemaRef, tableName, tableType);
-                TableMetaData tableMetaData = new TableMetaDataR(oRemarks, oTypeCat, oTypeSchema, oTypeName,
-                        oSelfRefColName, oRefGen);
-
-                TableDefinition tableDefinition = new TableDefinitionR(tableReference, tableMetaData);
-                tabeDefinitions.add(tableDefinition);
+                tabeDefinitions.add(readTableDefinition(rs));
             }
         }
 
         return List.copyOf(tabeDefinitions);
     }
 
+    private static TableDefinition readTableDefinition(ResultSet rs) throws SQLException {
+        final Optional<String> oCatalogName = Optional.ofNullable(rs.getString("TABLE_CAT"));
+        final Optional<String> oSchemaName = Optional.ofNullable(rs.getString("TABLE_SCHEM"));
+        final String tableName = rs.getString("TABLE_NAME");
+        final String tableType = rs.getString("TABLE_TYPE");
+        final Optional<String> oRemarks = Optional.ofNullable(rs.getString("REMARKS"));
+        final Optional<String> oTypeCat = Optional.ofNullable(rs.getString("TYPE_CAT"));
+        final Optional<String> oTypeSchema = Optional.ofNullable(rs.getString("TYPE_SCHEM"));
+        final Optional<String> oTypeName = Optional.ofNullable(rs.getString("TYPE_NAME"));
+        final Optional<String> oSelfRefColName = Optional.ofNullable(rs.getString("SELF_REFERENCING_COL_NAME"));
+        final Optional<String> oRefGen = Optional.ofNullable(rs.getString("REF_GENERATION"));
+
+        Optional<CatalogReference> oCatRef = oCatalogName.map(cn -> new CatalogReferenceR(cn));
+        Optional<SchemaReference> oSchemaRef = oSchemaName.map(sn -> new SchemaReferenceR(oCatRef, sn));
+
+        TableReference tableReference = new TableReferenceR(oSchemaRef, tableName, tableType);
+        TableMetaData tableMetaData = new TableMetaDataR(oRemarks, oTypeCat, oTypeSchema, oTypeName,
+                oSelfRefColName, oRefGen);
+
+        return new TableDefinitionR(tableReference, tableMetaData);
+    }
+
     @Override
     public boolean tableExists(DatabaseMetaData databaseMetaData, TableReference table) throws SQLException {
 
@@ -372,32 +385,33 @@ public class DatabaseServiceImpl implements DatabaseService {
 
         try (ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, tableNamePattern, columnNamePattern);) {
             while (rs.next()) {
-
-                final Optional<String> oCatalogName = Optional.ofNullable(rs.getString("TABLE_CAT"));
-                final Optional<String> oSchemaName = Optional.ofNullable(rs.getString("TABLE_SCHEM"));
-                final String tableName = rs.getString("TABLE_NAME");
-                final String columName = rs.getString("COLUMN_NAME");
-                final int dataType = rs.getInt("DATA_TYPE");
-                final int columnSize = rs.getInt("COLUMN_SIZE");
-                final Optional<Integer> decimalDigits = Optional.ofNullable(rs.getInt("DECIMAL_DIGITS"));
-                final Optional<String> remarks = Optional.ofNullable(rs.getString("REMARKS"));
-
-                Optional<CatalogReference> oCatRef = oCatalogName.map(cn -> new CatalogReferenceR(cn));
-                Optional<SchemaReference> oSchemaRef = oSchemaName.map(sn -> new SchemaReferenceR(oCatRef, sn));
-
-                JDBCType jdbcType = JDBCType.valueOf(dataType);
-                TableReference tableReference = new TableReferenceR(oSchemaRef, tableName);
-
-                ColumnReference columnReference = new ColumnReferenceR(Optional.of(tableReference), columName);
-                ColumnDefinition columnDefinition = new ColumnDefinitionR(columnReference,
-                        new ColumnMetaDataR(jdbcType, Optional.of(columnSize), decimalDigits, remarks));
-
-                columnDefinitions.add(columnDefinition);
+                columnDefinitions.add(readColumnDefinition(rs));
             }
         }
         return List.copyOf(columnDefinitions);
     }
 
+    private static ColumnDefinition readColumnDefinition(ResultSet rs) throws SQLException {
+        final Optional<String> oCatalogName = Optional.ofNullable(rs.getString("TABLE_CAT"));
+        final Optional<String> oSchemaName = Optional.ofNullable(rs.getString("TABLE_SCHEM"));
+        final String tableName = rs.getString("TABLE_NAME");
+        final String columName = rs.getString("COLUMN_NAME");
+        final int dataType = rs.getInt("DATA_TYPE");
+        final int columnSize = rs.getInt("COLUMN_SIZE");
+        final Optional<Integer> decimalDigits = Optional.ofNullable(rs.getInt("DECIMAL_DIGITS"));
+        final Optional<String> remarks = Optional.ofNullable(rs.getString("REMARKS"));
+
+        Optional<CatalogReference> oCatRef = oCatalogName.map(cn -> new CatalogReferenceR(cn));
+        Optional<SchemaReference> oSchemaRef = oSchemaName.map(sn -> new SchemaReferenceR(oCatRef, sn));
+
+        JDBCType jdbcType = JDBCType.valueOf(dataType);
+        TableReference tableReference = new TableReferenceR(oSchemaRef, tableName);
+
+        ColumnReference columnReference = new ColumnReferenceR(Optional.of(tableReference), columName);
+        return new ColumnDefinitionR(columnReference,
+                new ColumnMetaDataR(jdbcType, Optional.of(columnSize), decimalDigits, remarks));
+    }
+
     @Override
     public boolean columnExists(DatabaseMetaData databaseMetaData, ColumnReference column) throws SQLException {
 
@@ -438,34 +452,183 @@ public class DatabaseServiceImpl implements DatabaseService {
 
         try (ResultSet rs = databaseMetaData.getImportedKeys(catalog, schema, tableName);) {
             while (rs.next()) {
-
-                final Optional<String> oCatalogNamePK = Optional.ofNullable(rs.getString("PKTABLE_CAT"));
-                final Optional<String> oSchemaNamePk = Optional.ofNullable(rs.getString("PKTABLE_SCHEM"));
-                final String tableNamePk = rs.getString("PKTABLE_NAME");
-                final String columNamePk = rs.getString("PKCOLUMN_NAME");
-
-                final Optional<String> oCatalogNameFK = Optional.ofNullable(rs.getString("FKTABLE_CAT"));
-                final Optional<String> oSchemaNameFk = Optional.ofNullable(rs.getString("FKTABLE_SCHEM"));
-                final String tableNameFk = rs.getString("FKTABLE_NAME");
-                final String columNameFk = rs.getString("FKCOLUMN_NAME");
-
-                // PK
-                Optional<CatalogReference> oCatRefPk = oCatalogNamePK.map(cn -> new CatalogReferenceR(cn));
-                Optional<SchemaReference> oSchemaRefPk = oSchemaNamePk.map(sn -> new SchemaReferenceR(oCatRefPk, sn));
-                TableReference tableReferencePk = new TableReferenceR(oSchemaRefPk, tableNamePk);
-                ColumnReference primaryKeyColumn = new ColumnReferenceR(Optional.of(tableReferencePk), columNamePk);
-
-                // FK
-                Optional<CatalogReference> oCatRefFk = oCatalogNameFK.map(cn -> new CatalogReferenceR(cn));
-                Optional<SchemaReference> oSchemaRefFk = oSchemaNameFk.map(sn -> new SchemaReferenceR(oCatRefFk, sn));
-                TableReference tableReferenceFk = new TableReferenceR(oSchemaRefFk, tableNameFk);
-                ColumnReference foreignKeyColumn = new ColumnReferenceR(Optional.of(tableReferenceFk), columNameFk);
-
-                ImportedKey importedKey = new ImportedKeyR(primaryKeyColumn, foreignKeyColumn);
-                importedKeys.add(importedKey);
+                importedKeys.add(readImportedKey(rs));
             }
         }
         return List.copyOf(importedKeys);
     }
 
+    private static ImportedKey readImportedKey(ResultSet rs) throws SQLException {
+        final Optional<String> oCatalogNamePK = Optional.ofNullable(rs.getString("PKTABLE_CAT"));
+        final Optional<String> oSchemaNamePk = Optional.ofNullable(rs.getString("PKTABLE_SCHEM"));
+        final String tableNamePk = rs.getString("PKTABLE_NAME");
+        final String columNamePk = rs.getString("PKCOLUMN_NAME");
+
+        final Optional<String> oCatalogNameFK = Optional.ofNullable(rs.getString("FKTABLE_CAT"));
+        final Optional<String> oSchemaNameFk = Optional.ofNullable(rs.getString("FKTABLE_SCHEM"));
+        final String tableNameFk = rs.getString("FKTABLE_NAME");
+        final String columNameFk = rs.getString("FKCOLUMN_NAME");
+        final Optional<String> oName = Optional.ofNullable(rs.getString("FK_NAME"));
+        final int keySequence = rs.getInt("KEY_SEQ");
+
+        // PK
+        Optional<CatalogReference> oCatRefPk = oCatalogNamePK.map(cn -> new CatalogReferenceR(cn));
+        Optional<SchemaReference> oSchemaRefPk = oSchemaNamePk.map(sn -> new SchemaReferenceR(oCatRefPk, sn));
+        TableReference tableReferencePk = new TableReferenceR(oSchemaRefPk, tableNamePk);
+        ColumnReference primaryKeyColumn = new ColumnReferenceR(Optional.of(tableReferencePk), columNamePk);
+
+        // FK
+        Optional<CatalogReference> oCatRefFk = oCatalogNameFK.map(cn -> new CatalogReferenceR(cn));
+        Optional<SchemaReference> oSchemaRefFk = oSchemaNameFk.map(sn -> new SchemaReferenceR(oCatRefFk, sn));
+        TableReference tableReferenceFk = new TableReferenceR(oSchemaRefFk, tableNameFk);
+        ColumnReference foreignKeyColumn = new ColumnReferenceR(Optional.of(tableReferenceFk), columNameFk);
+
+        return new ImportedKeyR(primaryKeyColumn, foreignKeyColumn, oName, keySequence);
+    }
+
+    @Override
+    public SchemaModel getSchemaModel(DatabaseMetaData databaseMetaData, SchemaReference schema)
+            throws SQLException {
+        String catalog = schema.catalog().map(CatalogReference::name).orElse(null);
+        return getSchemaModel(databaseMetaData, catalog,
+                escape(schema.name(), databaseMetaData.getSearchStringEscape()), null);
+    }
+
+    @Override
+    public SchemaModel getSchemaModel(DatabaseMetaData databaseMetaData, String catalog, String schemaPattern,
+            String[] types) throws SQLException {
+
+        long start = System.currentTimeMillis();
+        Map<TableKey, TableDefinition> tables = new LinkedHashMap<>();
+        try (ResultSet rs = databaseMetaData.getTables(catalog, schemaPattern, null, types)) {
+            while (rs.next()) {
+                TableDefinition tableDefinition = readTableDefinition(rs);
+                tables.put(TableKey.of(tableDefinition.table()), tableDefinition);
+            }
+        }
+
+        Map<TableKey, List<ColumnDefinition>> columns = new HashMap<>();
+        try (ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, null, null)) {
+            while (rs.next()) {
+                ColumnDefinition columnDefinition = readColumnDefinition(rs);
+                TableKey key = TableKey.of(columnDefinition.column().table().orElseThrow());
+                // columns of tables with a type that is not requested
+                if (tables.containsKey(key)) {
+                    columns.computeIfAbsent(key, k -> new ArrayList<>()).add(columnDefinition);
+                }
+            }
+        }
+
+        Map<TableKey, List<ImportedKey>> importedKeys = getImportedKeys(databaseMetaData, tables.keySet());
+
+        List<TableModel> tableModels = new ArrayList<>(tables.size());
+        tables.forEach((key, tableDefinition) -> tableModels.add(new TableModelR(tableDefinition,
+                columns.getOrDefault(key, List.of()), importedKeys.getOrDefault(key, List.of()))));
+        LOGGER.debug("read schema model of {} tables in {} ms", tableModels.size(),
+                (System.currentTimeMillis() - start));
+        return new SchemaModelR(tableModels);
+    }
+
+    /**
+     * Reads the imported keys of the tables with one query per schema.
+     * {@link DatabaseMetaData#getImportedKeys(String, String, String)} takes
+     * names, not patterns, so the schemas are taken from the tables. Drivers
+     * that need a table name, like MySQL Connector/J and the SQL Server driver,
+     * throw. The keys of such a schema are read table by table, a schema
+     * without any keys is not queried again.
+     */
+    private static Map<TableKey, List<ImportedKey>> getImportedKeys(DatabaseMetaData databaseMetaData,
+            Set<TableKey> tables) throws SQLException {
+
+        Map<TableKey, List<TableKey>> schemas = new LinkedHashMap<>();
+        for (TableKey table : tables) {
+            schemas.computeIfAbsent(new TableKey(table.catalog(), table.schema(), null), k -> new ArrayList<>())
+                    .add(table);
+        }
+
+        Map<TableKey, List<ImportedKey>> importedKeys = new HashMap<>();
+        for (Map.Entry<TableKey, List<TableKey>> schema : schemas.entrySet()) {
+            if (!readImportedKeys(databaseMetaData, schema.getKey(), tables, importedKeys)) {
+                for (TableKey table : schema.getValue()) {
+                    readImportedKeys(databaseMetaData, table, tables, importedKeys);
+                }
+            }
+        }
+        return importedKeys;
+    }
+
+    /**
+     * @return false if the query of the keys of a schema without table name
+     *         threw
+     */
+    private static boolean readImportedKeys(DatabaseMetaData databaseMetaData, TableKey key, Set<TableKey> tables,
+            Map<TableKey, List<ImportedKey>> importedKeys) throws SQLException {
+        try (ResultSet rs = databaseMetaData.getImportedKeys(key.catalog(), key.schema(), key.name())) {
+            while (rs.next()) {
+                ImportedKey importedKey = readImportedKey(rs);
+                TableKey table = TableKey.of(importedKey.foreignKeyColumn().table().orElseThrow());
+                if (tables.contains(table)) {
+                    importedKeys.computeIfAbsent(table, k -> new ArrayList<>()).add(importedKey);
+                }
+            }
+        } catch (SQLException e) {
+            if (key.name() != null) {
+                throw e;
+            }
+            LOGGER.debug("imported keys of schema {} could not be read at once, read them per table", key.schema(),
+                    e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Escapes the wildcards of a name, so it is not used as pattern.
+     */
+    static String escape(String name, String escape) {
+        if (name == null || escape == null || escape.isEmpty()) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '%' || name.startsWith(escape, i)) {
+                sb.append(escape);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public SchemaDiff diffSchemaModels(SchemaModel source, SchemaModel target) {
+        return SchemaDiffer.diff(source, target);
+    }
+
+    @Override
+    public List<SqlStatement> getDdlStatements(SchemaDiff schemaDiff) {
+        return SchemaDiffer.getDdlStatements(schemaDiff);
+    }
+
+    /**
+     * Identifies a table independent of its type, that not all metadata queries
+     * return.
+     */
+    record TableKey(String catalog, String schema, String name) {
+
+        static TableKey of(TableReference table) {
+            Optional<SchemaReference> oSchema = table.schema();
+            return new TableKey(oSchema.flatMap(SchemaReference::catalog).map(CatalogReference::name).orElse(null),
+                    oSchema.map(SchemaReference::name).orElse(null), table.name());
+        }
+
+        /**
+         * @return the key without catalog, that matches the table in models read
+         *         from another database
+         */
+        TableKey withoutCatalog() {
+            return new TableKey(null, schema, name);
+        }
+    }
+
 }
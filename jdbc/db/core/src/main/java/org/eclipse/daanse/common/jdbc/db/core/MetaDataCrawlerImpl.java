@@ -0,0 +1,179 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.MetaDataCrawler;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.api.sql.CatalogReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.SchemaReference;
+import org.eclipse.daanse.common.jdbc.db.record.meta.SchemaModelR;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ServiceScope;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MetaDataCrawler} that starts up to the configured count of workers.
+ * Every worker opens one connection and reads the {@link SchemaModel} of one
+ * schema after the other from a shared queue, so a worker that got small
+ * schemas takes over more of them.
+ */
+@Designate(ocd = MetaDataCrawlerConfig.class)
+@Component(service = MetaDataCrawler.class, scope = ServiceScope.SINGLETON,
+        configurationPolicy = ConfigurationPolicy.OPTIONAL)
+public class MetaDataCrawlerImpl implements MetaDataCrawler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetaDataCrawlerImpl.class);
+
+    @Reference
+    DatabaseService databaseService;
+
+    private int connections;
+
+    /**
+     * One unit of work, a schema or a catalog of a database without schemas.
+     */
+    private record Unit(int index, String catalog, String schema) {
+
+        static Unit of(int index, SchemaReference schema) {
+            return new Unit(index, schema.catalog().map(CatalogReference::name).orElse(null), schema.name());
+        }
+    }
+
+    @Activate
+    public void activate(MetaDataCrawlerConfig config) {
+        connections = Math.max(1, config.connections());
+    }
+
+    @Override
+    public SchemaModel crawl(DataSource dataSource, List<String> types) throws SQLException {
+        List<Unit> units = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            for (SchemaReference schema : databaseService.getSchemas(databaseMetaData)) {
+                units.add(Unit.of(units.size(), schema));
+            }
+            if (units.isEmpty()) {
+                for (CatalogReference catalog : databaseService.getCatalogs(databaseMetaData)) {
+                    units.add(new Unit(units.size(), catalog.name(), null));
+                }
+            }
+        }
+        return crawlUnits(dataSource, units, types);
+    }
+
+    @Override
+    public SchemaModel crawl(DataSource dataSource, List<SchemaReference> schemas, List<String> types)
+            throws SQLException {
+        List<Unit> units = new ArrayList<>(schemas.size());
+        for (SchemaReference schema : schemas) {
+            units.add(Unit.of(units.size(), schema));
+        }
+        return crawlUnits(dataSource, units, types);
+    }
+
+    private SchemaModel crawlUnits(DataSource dataSource, List<Unit> units, List<String> types) throws SQLException {
+        ConcurrentLinkedQueue<Unit> queue = new ConcurrentLinkedQueue<>(units);
+        String[] typesArr = types == null || types.isEmpty() ? null : types.toArray(String[]::new);
+        SchemaModel[] models = new SchemaModel[units.size()];
+        AtomicBoolean failed = new AtomicBoolean();
+
+        long start = System.currentTimeMillis();
+        int workers = Math.min(connections, units.size());
+        List<Future<Void>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers))) {
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        DatabaseMetaData databaseMetaData = connection.getMetaData();
+                        String escape = databaseMetaData.getSearchStringEscape();
+                        Unit unit;
+                        while (!failed.get() && (unit = queue.poll()) != null) {
+                            models[unit.index()] = databaseService.getSchemaModel(databaseMetaData, unit.catalog(),
+                                    DatabaseServiceImpl.escape(unit.schema(), escape), typesArr);
+                        }
+                    } catch (Exception e) {
+                        // the other workers stop after their current schema
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+        }
+        checkWorkers(futures);
+
+        List<TableModel> tables = new ArrayList<>();
+        for (SchemaModel model : models) {
+            tables.addAll(model.tables());
+        }
+        LOGGER.debug("crawled {} tables of {} schemas with {} connections in {} ms", tables.size(), units.size(),
+                workers, (System.currentTimeMillis() - start));
+        return new SchemaModelR(tables);
+    }
+
+    /**
+     * Rethrows the failure of the first failed worker, the failures of the
+     * other workers are suppressed by it.
+     */
+    private static void checkWorkers(List<Future<Void>> futures) throws SQLException {
+        Throwable failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while crawling", e);
+            }
+        }
+        if (failure instanceof SQLException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new SQLException(failure);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition()
+public @interface MetaInfoCacheConfig {
+
+    /**
+     * @return Time To Live. Time in milliseconds a snapshot of the MetaInfo is
+     *         used before it is read again. 0 keeps it until it is invalidated.
+     */
+    @AttributeDefinition(description = "timeToLive", defaultValue = "600000")
+    long timeToLive() default 600000;
+}
@@ -0,0 +1,221 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.MetaInfoCache;
+import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ServiceScope;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MetaInfoCache} that remembers the database of every known
+ * {@link DataSource} instance, so a valid snapshot is returned without opening
+ * a connection. Snapshots are keyed by URL and user of the database, so
+ * different {@link DataSource}s of one database share the snapshot. Drivers
+ * that report no URL get a snapshot per {@link DataSource} instance.
+ * <p>
+ * The {@link DataSource}s are referenced weakly, so an unregistered
+ * {@link DataSource} is not kept alive by the cache. A snapshot is read by the
+ * first caller outside of any lock, later callers wait for its future.
+ */
+@Designate(ocd = MetaInfoCacheConfig.class)
+@Component(service = MetaInfoCache.class, scope = ServiceScope.SINGLETON,
+        configurationPolicy = ConfigurationPolicy.OPTIONAL)
+public class MetaInfoCacheImpl implements MetaInfoCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetaInfoCacheImpl.class);
+
+    @Reference
+    DatabaseService databaseService;
+
+    private final Map<DataSourceKey, Object> databaseKeys = new ConcurrentHashMap<>();
+    private final Map<Object, CompletableFuture<Snapshot>> snapshots = new ConcurrentHashMap<>();
+    private final ReferenceQueue<DataSource> collected = new ReferenceQueue<>();
+    private long timeToLiveNanos;
+
+    /**
+     * Weak reference to a {@link DataSource} compared by identity, a pool may
+     * implement equals differently. A key of a collected {@link DataSource} only
+     * equals itself.
+     */
+    private static final class DataSourceKey extends WeakReference<DataSource> {
+
+        private final int hashCode;
+
+        DataSourceKey(DataSource dataSource, ReferenceQueue<DataSource> queue) {
+            super(dataSource, queue);
+            this.hashCode = System.identityHashCode(dataSource);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            DataSource dataSource = get();
+            return dataSource != null && obj instanceof DataSourceKey other && other.get() == dataSource;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private record DatabaseKey(String url, String user) {
+    }
+
+    private record Snapshot(MetaInfo metaInfo, long created) {
+    }
+
+    @Activate
+    public void activate(MetaInfoCacheConfig config) {
+        timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(config.timeToLive());
+    }
+
+    @Deactivate
+    public void deactivate() {
+        invalidateAll();
+    }
+
+    @Override
+    public MetaInfo getMetaInfo(DataSource dataSource) throws SQLException {
+        expungeCollected();
+        DataSourceKey dataSourceKey = new DataSourceKey(dataSource, collected);
+        Object databaseKey = databaseKeys.get(dataSourceKey);
+        if (databaseKey != null) {
+            CompletableFuture<Snapshot> future = snapshots.get(databaseKey);
+            if (future != null) {
+                Snapshot snapshot = await(future);
+                if (isValid(snapshot)) {
+                    return snapshot.metaInfo();
+                }
+            }
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            String url = databaseMetaData.getURL();
+            Object key = url == null ? dataSourceKey : new DatabaseKey(url, databaseMetaData.getUserName());
+            databaseKeys.put(dataSourceKey, key);
+            while (true) {
+                // one connection reads the snapshot, the others wait for it
+                CompletableFuture<Snapshot> created = new CompletableFuture<>();
+                CompletableFuture<Snapshot> future = snapshots.computeIfAbsent(key, k -> created);
+                if (future == created) {
+                    return read(connection, key, created).metaInfo();
+                }
+                Snapshot snapshot = await(future);
+                if (isValid(snapshot)) {
+                    return snapshot.metaInfo();
+                }
+                snapshots.remove(key, future);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(DataSource dataSource) {
+        Object databaseKey = databaseKeys.remove(new DataSourceKey(dataSource, null));
+        if (databaseKey != null) {
+            snapshots.remove(databaseKey);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        databaseKeys.clear();
+        snapshots.clear();
+    }
+
+    /**
+     * Reads the snapshot and completes its future. A failed read is removed, so
+     * the next caller reads again.
+     */
+    private Snapshot read(Connection connection, Object key, CompletableFuture<Snapshot> future)
+            throws SQLException {
+        try {
+            long start = System.nanoTime();
+            MetaInfo metaInfo = databaseService.createMetaInfo(connection);
+            LOGGER.debug("read MetaInfo of {} in {} ms", key,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            Snapshot snapshot = new Snapshot(metaInfo, System.nanoTime());
+            future.complete(snapshot);
+            return snapshot;
+        } catch (SQLException | RuntimeException | Error e) {
+            snapshots.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the snapshot another caller reads.
+     */
+    private static Snapshot await(CompletableFuture<Snapshot> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw new SQLException(sqlException.getMessage(), sqlException.getSQLState(),
+                        sqlException.getErrorCode(), sqlException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the keys of collected {@link DataSource}s, and the snapshots of those
+     * without URL.
+     */
+    private void expungeCollected() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            databaseKeys.remove(reference);
+            snapshots.remove(reference);
+        }
+    }
+
+    private boolean isValid(Snapshot snapshot) {
+        return timeToLiveNanos <= 0 || System.nanoTime() - snapshot.created() < timeToLiveNanos;
+    }
+}
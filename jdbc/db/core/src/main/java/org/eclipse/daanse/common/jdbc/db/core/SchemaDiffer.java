@@ -0,0 +1,308 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff.TableDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnMetaData;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SqlStatement;
+import org.eclipse.daanse.common.jdbc.db.core.DatabaseServiceImpl.TableKey;
+import org.eclipse.daanse.common.jdbc.db.record.meta.SchemaDiffR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.TableDiffR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddColumnSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddForeignKeySqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AlterColumnTypeSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateContainerSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropColumnSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropConstraintSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropContainerSqlStatementR;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares two {@link SchemaModel}s and turns the {@link SchemaDiff} into the
+ * {@link SqlStatement}s that change the source into the target.
+ */
+final class SchemaDiffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaDiffer.class);
+
+    private static final String TABLE = "TABLE";
+
+    private static final String BASE_TABLE = "BASE TABLE";
+
+    /**
+     * Identifies a column of a foreign key independent of the references the
+     * driver returned and the name of the constraint.
+     */
+    private record KeyId(String column, TableKey referencedTable, String referencedColumn) {
+
+        static KeyId of(ImportedKey importedKey) {
+            ColumnReference primaryKeyColumn = importedKey.primaryKeyColumn();
+            return new KeyId(importedKey.foreignKeyColumn().name(), key(primaryKeyColumn.table().orElseThrow()),
+                    primaryKeyColumn.name());
+        }
+    }
+
+    private SchemaDiffer() {
+    }
+
+    static SchemaDiff diff(SchemaModel source, SchemaModel target) {
+        Map<TableKey, TableModel> sourceTables = index(source);
+        Map<TableKey, TableModel> targetTables = index(target);
+
+        List<TableModel> addedTables = new ArrayList<>();
+        List<TableDiff> alteredTables = new ArrayList<>();
+        targetTables.forEach((key, targetTable) -> {
+            TableModel sourceTable = sourceTables.get(key);
+            if (sourceTable == null) {
+                addedTables.add(targetTable);
+            } else {
+                diff(sourceTable, targetTable).ifPresent(alteredTables::add);
+            }
+        });
+        List<TableModel> removedTables = sourceTables.entrySet().stream()
+                .filter(e -> !targetTables.containsKey(e.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+
+        return new SchemaDiffR(addedTables, removedTables, alteredTables);
+    }
+
+    private static Map<TableKey, TableModel> index(SchemaModel model) {
+        Map<TableKey, TableModel> tables = new LinkedHashMap<>();
+        for (TableModel table : model.tables()) {
+            tables.put(key(table.definition().table()), table);
+        }
+        return tables;
+    }
+
+    private static Optional<TableDiff> diff(TableModel source, TableModel target) {
+        Map<String, ColumnDefinition> sourceColumns = new LinkedHashMap<>();
+        source.columns().forEach(c -> sourceColumns.put(c.column().name(), c));
+        Set<String> targetColumnNames = new HashSet<>();
+
+        List<ColumnDefinition> addedColumns = new ArrayList<>();
+        List<ColumnDefinition> alteredColumns = new ArrayList<>();
+        for (ColumnDefinition targetColumn : target.columns()) {
+            targetColumnNames.add(targetColumn.column().name());
+            ColumnDefinition sourceColumn = sourceColumns.get(targetColumn.column().name());
+            if (sourceColumn == null) {
+                addedColumns.add(targetColumn);
+            } else if (!isSameType(sourceColumn.columnType(), targetColumn.columnType())) {
+                alteredColumns.add(targetColumn);
+            }
+        }
+        List<ColumnDefinition> removedColumns = source.columns().stream()
+                .filter(c -> !targetColumnNames.contains(c.column().name()))
+                .toList();
+
+        List<List<ImportedKey>> sourceForeignKeys = foreignKeys(source.importedKeys());
+        List<List<ImportedKey>> targetForeignKeys = foreignKeys(target.importedKeys());
+        Set<List<KeyId>> sourceKeys = new HashSet<>(sourceForeignKeys.stream().map(SchemaDiffer::keyIds).toList());
+        Set<List<KeyId>> targetKeys = new HashSet<>(targetForeignKeys.stream().map(SchemaDiffer::keyIds).toList());
+        List<ImportedKey> addedKeys = targetForeignKeys.stream()
+                .filter(k -> !sourceKeys.contains(keyIds(k)))
+                .flatMap(List::stream)
+                .toList();
+        List<ImportedKey> removedKeys = sourceForeignKeys.stream()
+                .filter(k -> !targetKeys.contains(keyIds(k)))
+                .flatMap(List::stream)
+                .toList();
+
+        if (addedColumns.isEmpty() && removedColumns.isEmpty() && alteredColumns.isEmpty() && addedKeys.isEmpty()
+                && removedKeys.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TableDiffR(target.definition().table(), addedColumns, removedColumns,
+                alteredColumns, addedKeys, removedKeys));
+    }
+
+    /**
+     * Size and decimal digits are only compared if both models know them, so a
+     * target model could leave them open.
+     */
+    private static boolean isSameType(ColumnMetaData source, ColumnMetaData target) {
+        return source.dataType() == target.dataType() && isSameIfPresent(source.columnSize(), target.columnSize())
+                && isSameIfPresent(source.decimalDigits(), target.decimalDigits());
+    }
+
+    private static boolean isSameIfPresent(Optional<Integer> source, Optional<Integer> target) {
+        return source.isEmpty() || target.isEmpty() || source.equals(target);
+    }
+
+    /**
+     * Drops the removed foreign keys, creates the added tables, alters the
+     * columns of the altered tables, adds the foreign keys when all their tables
+     * and columns exist and drops the removed tables at last. Removed keys
+     * without constraint name are not dropped.
+     */
+    static List<SqlStatement> getDdlStatements(SchemaDiff diff) {
+        List<SqlStatement> statements = new ArrayList<>();
+        List<SqlStatement> foreignKeys = new ArrayList<>();
+
+        for (TableDiff tableDiff : diff.alteredTables()) {
+            dropForeignKeys(statements, container(tableDiff.table()), tableDiff.removedKeys());
+        }
+
+        for (TableModel tableModel : diff.addedTables()) {
+            TableReference table = container(tableModel.definition().table());
+            if (!TABLE.equals(table.type())) {
+                LOGGER.debug("{} {} can not be created from the schema model", table.type(), table.name());
+                continue;
+            }
+            statements.add(new CreateContainerSqlStatementR(table,
+                    tableModel.columns().stream().map(SchemaDiffer::ddlColumn).toList(), false));
+            addForeignKeys(foreignKeys, table, tableModel.importedKeys());
+        }
+
+        for (TableDiff tableDiff : diff.alteredTables()) {
+            TableReference table = container(tableDiff.table());
+            for (ColumnDefinition column : tableDiff.addedColumns()) {
+                statements.add(new AddColumnSqlStatementR(table, ddlColumn(column)));
+            }
+            for (ColumnDefinition column : tableDiff.alteredColumns()) {
+                statements.add(new AlterColumnTypeSqlStatementR(table, ddlColumn(column)));
+            }
+            for (ColumnDefinition column : tableDiff.removedColumns()) {
+                statements.add(new DropColumnSqlStatementR(table, column.column()));
+            }
+            addForeignKeys(foreignKeys, table, tableDiff.addedKeys());
+        }
+        statements.addAll(foreignKeys);
+
+        for (TableModel tableModel : diff.removedTables()) {
+            statements.add(new DropContainerSqlStatementR(container(tableModel.definition().table()), false));
+        }
+        return List.copyOf(statements);
+    }
+
+    private static void addForeignKeys(List<SqlStatement> statements, TableReference table,
+            List<ImportedKey> importedKeys) {
+        for (List<ImportedKey> keys : foreignKeys(importedKeys)) {
+            TableReference referencedTable = container(keys.get(0).primaryKeyColumn().table().orElseThrow());
+            statements.add(new AddForeignKeySqlStatementR(table, keys.get(0).name(),
+                    keys.stream().map(ImportedKey::foreignKeyColumn).toList(), referencedTable,
+                    keys.stream().map(ImportedKey::primaryKeyColumn).toList()));
+        }
+    }
+
+    private static void dropForeignKeys(List<SqlStatement> statements, TableReference table,
+            List<ImportedKey> importedKeys) {
+        for (List<ImportedKey> keys : foreignKeys(importedKeys)) {
+            Optional<String> name = keys.get(0).name();
+            if (name.isPresent()) {
+                statements.add(new DropConstraintSqlStatementR(table, name.get()));
+            } else {
+                LOGGER.debug("foreign key of {} without name can not be dropped", table.name());
+            }
+        }
+    }
+
+    /**
+     * Groups the rows of the imported keys into the foreign keys they form, with
+     * the columns in key order. Rows with a constraint name are grouped by it.
+     * Rows without name are grouped by the referenced table, a row with a key
+     * sequence that is already taken starts another key.
+     */
+    private static List<List<ImportedKey>> foreignKeys(List<ImportedKey> importedKeys) {
+        List<List<ImportedKey>> keys = new ArrayList<>();
+        Map<String, List<ImportedKey>> named = new HashMap<>();
+        Map<TableKey, List<List<ImportedKey>>> unnamed = new HashMap<>();
+        List<ImportedKey> sorted = importedKeys.stream().sorted(Comparator.comparingInt(ImportedKey::keySequence))
+                .toList();
+        for (ImportedKey importedKey : sorted) {
+            List<ImportedKey> key;
+            if (importedKey.name().isPresent()) {
+                key = named.computeIfAbsent(importedKey.name().get(), n -> newKey(keys));
+            } else {
+                List<List<ImportedKey>> candidates = unnamed.computeIfAbsent(
+                        key(importedKey.primaryKeyColumn().table().orElseThrow()), t -> new ArrayList<>());
+                key = candidates.stream().filter(k -> k.size() < importedKey.keySequence()).findFirst()
+                        .orElseGet(() -> {
+                            List<ImportedKey> k = newKey(keys);
+                            candidates.add(k);
+                            return k;
+                        });
+            }
+            key.add(importedKey);
+        }
+        return keys;
+    }
+
+    private static List<ImportedKey> newKey(List<List<ImportedKey>> keys) {
+        List<ImportedKey> key = new ArrayList<>();
+        keys.add(key);
+        return key;
+    }
+
+    private static List<KeyId> keyIds(List<ImportedKey> foreignKey) {
+        return foreignKey.stream().map(KeyId::of).toList();
+    }
+
+    /**
+     * Tables are matched by schema and name, so models read from different
+     * catalogs are comparable.
+     */
+    private static TableKey key(TableReference table) {
+        return TableKey.of(table).withoutCatalog();
+    }
+
+    /**
+     * Drivers report size and decimal digits for every column, but DDL only
+     * accepts them for some types.
+     */
+    private static ColumnDefinition ddlColumn(ColumnDefinition column) {
+        ColumnMetaData type = column.columnType();
+        boolean sized = switch (type.dataType()) {
+        case CHAR, VARCHAR, NCHAR, NVARCHAR, BINARY, VARBINARY, DECIMAL, NUMERIC -> true;
+        default -> false;
+        };
+        boolean scaled = type.dataType() == JDBCType.DECIMAL || type.dataType() == JDBCType.NUMERIC;
+        return new ColumnDefinitionR(column.column(),
+                new ColumnMetaDataR(type.dataType(), sized ? type.columnSize() : Optional.empty(),
+                        scaled ? type.decimalDigits() : Optional.empty(), type.remarks()));
+    }
+
+    /**
+     * Some databases report their tables as BASE TABLE, that is not usable in
+     * DDL.
+     */
+    private static TableReference container(TableReference table) {
+        if (BASE_TABLE.equals(table.type())) {
+            return new TableReferenceR(table.schema(), table.name(), TABLE);
+        }
+        return table;
+    }
+}
@@ -13,6 +13,12 @@
 */
 package org.eclipse.daanse.common.jdbc.db.core;
 
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
@@ -23,11 +29,21 @@ import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnMetaData;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.Named;
 import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.AddColumnSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.AddForeignKeySqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.AddPrimaryKeySqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.AlterColumnTypeSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.CreateIndexSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.CreateSchemaSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.CreateSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.DeleteSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.DropColumnSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.DropConstraintSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.DropContainerSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.DropSchemaSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.InsertSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.RenameContainerSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SelectSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SqlStatement;
 import org.eclipse.daanse.common.jdbc.db.api.sql.statement.TruncateTableSqlStatement;
 import org.slf4j.Logger;
@@ -38,12 +54,15 @@ public class SqlStatementGeneratorImpl implements SqlStatementGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(Logger.class);
     public static final String NO_QUOTE_FROM_METADATA = " ";
 
-    private final MetaInfo metaInfo;
+    private final Map<JDBCType, List<TypeInfo>> typeInfos = new EnumMap<>(JDBCType.class);
     private final String quoteString;
 
     public SqlStatementGeneratorImpl(MetaInfo metaInfo) {
-        this.metaInfo = metaInfo;
         quoteString = metaInfo.identifierInfo().quoteString();
+        // keeps the order of the driver, that lists the closest type first
+        for (TypeInfo typeInfo : metaInfo.typeInfos()) {
+            typeInfos.computeIfAbsent(typeInfo.dataType(), t -> new ArrayList<>()).add(typeInfo);
+        }
     }
 
     @Override
@@ -59,6 +78,16 @@ public class SqlStatementGeneratorImpl implements SqlStatementGenerator {
         case TruncateTableSqlStatement ts -> writeTruncateTableSqlStatement(ts);
         case CreateSqlStatement cc -> writeCreateSqlStatement(cc);
         case InsertSqlStatement is -> writeInsertSqlStatement(is);
+        case DeleteSqlStatement ds -> writeDeleteSqlStatement(ds);
+        case SelectSqlStatement ss -> writeSelectSqlStatement(ss);
+        case RenameContainerSqlStatement rc -> writeRenameContainerSqlStatement(rc);
+        case CreateIndexSqlStatement ci -> writeCreateIndexSqlStatement(ci);
+        case AddPrimaryKeySqlStatement pk -> writeAddPrimaryKeySqlStatement(pk);
+        case AddColumnSqlStatement ac -> writeAddColumnSqlStatement(ac);
+        case DropColumnSqlStatement dc -> writeDropColumnSqlStatement(dc);
+        case AlterColumnTypeSqlStatement at -> writeAlterColumnTypeSqlStatement(at);
+        case AddForeignKeySqlStatement fk -> writeAddForeignKeySqlStatement(fk);
+        case DropConstraintSqlStatement dc -> writeDropConstraintSqlStatement(dc);
         };
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Generated SqlStatement: {}", sb.toString());
@@ -107,6 +136,51 @@ public class SqlStatementGeneratorImpl implements SqlStatementGenerator {
         return sb;
     }
 
+    private StringBuilder writeDeleteSqlStatement(DeleteSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(30);
+        sb.append("DELETE FROM ");
+        quoteContainerReference(sb, statement.table());
+        writeWhere(sb, statement.whereColumns(), statement.whereValues());
+        return sb;
+    }
+
+    private StringBuilder writeSelectSqlStatement(SelectSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(30);
+        sb.append("SELECT ");
+
+        if (statement.columns().isEmpty()) {
+            sb.append("*");
+        }
+
+        boolean firstColumn = true;
+        for (ColumnReference column : statement.columns()) {
+
+            if (firstColumn) {
+                firstColumn = false;
+            } else {
+                sb.append(", ");
+            }
+            quoteReference(sb, column);
+        }
+
+        sb.append(" FROM ");
+        quoteContainerReference(sb, statement.table());
+        writeWhere(sb, statement.whereColumns(), statement.whereValues());
+        return sb;
+    }
+
+    private void writeWhere(final StringBuilder sb, final List<ColumnReference> columns, final List<String> values) {
+
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i == 0 ? " WHERE " : " AND ");
+            quoteReference(sb, columns.get(i));
+            sb.append(" = ");
+            sb.append(values.get(i));
+        }
+    }
+
     private StringBuilder writeCreateSqlStatement(CreateSqlStatement statement) {
         TableReference table = statement.table();
 
@@ -135,33 +209,52 @@ public class SqlStatementGeneratorImpl implements SqlStatementGenerator {
 
             quoteReference(sb, columnDefinition.column());
             sb.append(" ");
+            writeColumnType(sb, columnDefinition.columnType());
+        }
 
-            ColumnMetaData dataType = columnDefinition.columnType();
+        sb.append(")");
 
-            Optional<TypeInfo> oTypeInfo = metaInfo.typeInfos().stream().filter(t -> {
-                return t.dataType() == dataType.dataType();
-            }).findFirst();
+        return sb;
+    }
+
+    private void writeColumnType(final StringBuilder sb, final ColumnMetaData dataType) {
 
-            String typeName = oTypeInfo.map(TypeInfo::typeName).orElse(dataType.dataType().getName());
-            sb.append(typeName);
+        Optional<TypeInfo> oTypeInfo = getTypeInfo(dataType);
 
-            dataType.columnSize().ifPresent(columnSize -> {
-                sb.append("(");
-                sb.append(columnSize);
+        String typeName = oTypeInfo.map(TypeInfo::typeName).orElse(dataType.dataType().getName());
+        sb.append(typeName);
 
-                dataType.decimalDigits().ifPresent(i -> {
-                    sb.append(",");
-                    sb.append(i);
-                });
+        dataType.columnSize().ifPresent(columnSize -> {
+            sb.append("(");
+            sb.append(columnSize);
 
-                sb.append(")");
+            dataType.decimalDigits().ifPresent(i -> {
+                sb.append(",");
+                sb.append(i);
             });
 
-        }
+            sb.append(")");
+        });
+    }
 
-        sb.append(")");
+    /**
+     * Chooses the first type of the data type whose precision fits the column
+     * size. A precision of 0 is unknown and fits every size. If no type fits,
+     * the one with the largest precision is used, it truncates the least.
+     */
+    private Optional<TypeInfo> getTypeInfo(final ColumnMetaData dataType) {
 
-        return sb;
+        List<TypeInfo> candidates = typeInfos.get(dataType.dataType());
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        int columnSize = dataType.columnSize().orElse(0);
+        for (TypeInfo typeInfo : candidates) {
+            if (typeInfo.percision() <= 0 || typeInfo.percision() >= columnSize) {
+                return Optional.of(typeInfo);
+            }
+        }
+        return candidates.stream().max(Comparator.comparingInt(TypeInfo::percision));
     }
 
     private StringBuilder writeTruncateTableSqlStatement(TruncateTableSqlStatement statement) {
@@ -216,6 +309,153 @@ public class SqlStatementGeneratorImpl implements SqlStatementGenerator {
         return sb;
     }
 
+    private StringBuilder writeRenameContainerSqlStatement(RenameContainerSqlStatement statement) {
+        TableReference table = statement.container();
+
+        StringBuilder sb = new StringBuilder(30);
+        sb.append("ALTER ");
+
+        sb.append(table.type());
+        sb.append(" ");
+
+        if (statement.ifExists()) {
+            sb.append("IF EXISTS ");
+        }
+
+        quoteContainerReference(sb, table);
+        sb.append(" RENAME TO ");
+        quoteIdentifier(sb, statement.newName());
+
+        return sb;
+    }
+
+    private StringBuilder writeCreateIndexSqlStatement(CreateIndexSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("CREATE ");
+
+        if (statement.unique()) {
+            sb.append("UNIQUE ");
+        }
+        sb.append("INDEX ");
+
+        if (statement.ifNotExists()) {
+            sb.append("IF NOT EXISTS ");
+        }
+
+        quoteIdentifier(sb, statement.indexName());
+        sb.append(" ON ");
+        quoteContainerReference(sb, statement.table());
+        writeColumnList(sb, statement.columns());
+
+        return sb;
+    }
+
+    private StringBuilder writeAddPrimaryKeySqlStatement(AddPrimaryKeySqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" ADD ");
+
+        statement.constraintName().ifPresent(name -> {
+            sb.append("CONSTRAINT ");
+            quoteIdentifier(sb, name);
+            sb.append(" ");
+        });
+
+        sb.append("PRIMARY KEY");
+        writeColumnList(sb, statement.columns());
+
+        return sb;
+    }
+
+    private StringBuilder writeAddColumnSqlStatement(AddColumnSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" ADD ");
+        quoteReference(sb, statement.columnDefinition().column());
+        sb.append(" ");
+        writeColumnType(sb, statement.columnDefinition().columnType());
+
+        return sb;
+    }
+
+    private StringBuilder writeDropColumnSqlStatement(DropColumnSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" DROP COLUMN ");
+        quoteReference(sb, statement.column());
+
+        return sb;
+    }
+
+    private StringBuilder writeAlterColumnTypeSqlStatement(AlterColumnTypeSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" ALTER COLUMN ");
+        quoteReference(sb, statement.columnDefinition().column());
+        sb.append(" SET DATA TYPE ");
+        writeColumnType(sb, statement.columnDefinition().columnType());
+
+        return sb;
+    }
+
+    private StringBuilder writeAddForeignKeySqlStatement(AddForeignKeySqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(60);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" ADD ");
+
+        statement.constraintName().ifPresent(name -> {
+            sb.append("CONSTRAINT ");
+            quoteIdentifier(sb, name);
+            sb.append(" ");
+        });
+
+        sb.append("FOREIGN KEY");
+        writeColumnList(sb, statement.columns());
+        sb.append(" REFERENCES ");
+        quoteContainerReference(sb, statement.referencedTable());
+        writeColumnList(sb, statement.referencedColumns());
+
+        return sb;
+    }
+
+    private StringBuilder writeDropConstraintSqlStatement(DropConstraintSqlStatement statement) {
+
+        StringBuilder sb = new StringBuilder(40);
+        sb.append("ALTER TABLE ");
+        quoteContainerReference(sb, statement.table());
+        sb.append(" DROP CONSTRAINT ");
+        quoteIdentifier(sb, statement.constraintName());
+
+        return sb;
+    }
+
+    private void writeColumnList(final StringBuilder sb, final List<ColumnReference> columns) {
+
+        sb.append("(");
+        boolean first = true;
+        for (ColumnReference column : columns) {
+
+            if (first) {
+                first = false;
+            } else {
+                sb.append(", ");
+            }
+            quoteReference(sb, column);
+        }
+        sb.append(")");
+    }
+
     private void quoteContainerReference(final StringBuilder sb, final TableReference containerReference) {
 
         containerReference.schema().ifPresent(schema -> {
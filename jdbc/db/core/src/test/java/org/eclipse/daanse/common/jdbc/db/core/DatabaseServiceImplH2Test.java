@@ -15,8 +15,10 @@ package org.eclipse.daanse.common.jdbc.db.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,7 +26,10 @@ import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
 import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TableDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.meta.TypeInfo;
 import org.eclipse.daanse.common.jdbc.db.api.sql.CatalogReference;
@@ -170,4 +175,62 @@ class DatabaseServiceImplH2Test {
         assertThat(exists).isTrue();
     }
 
+    @Test
+    void getSchemaModelTest() throws SQLException {
+        DataSource ds = ds();
+        try (Connection connection = ds.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY, NAME VARCHAR(10))");
+            statement.execute("CREATE TABLE CHILD (ID INT, PARENT_ID INT REFERENCES PARENT(ID), VAL DECIMAL(10,2))");
+
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            SchemaModel schemaModel = databaseService.getSchemaModel(databaseMetaData,
+                    new SchemaReferenceR("PUBLIC"));
+
+            assertThat(schemaModel.tables()).extracting(t -> t.definition().table().name())
+                    .containsExactlyInAnyOrder("PARENT", "CHILD");
+
+            TableModel child = schemaModel.tables().stream()
+                    .filter(t -> t.definition().table().name().equals("CHILD")).findFirst().orElseThrow();
+            assertThat(child.columns()).extracting(c -> c.column().name()).containsExactly("ID", "PARENT_ID",
+                    "VAL");
+            assertThat(child.importedKeys()).hasSize(1);
+            ImportedKey importedKey = child.importedKeys().get(0);
+            assertThat(importedKey.foreignKeyColumn().name()).isEqualTo("PARENT_ID");
+            assertThat(importedKey.primaryKeyColumn().name()).isEqualTo("ID");
+            assertThat(importedKey.primaryKeyColumn().table().orElseThrow().name()).isEqualTo("PARENT");
+
+            TableModel parent = schemaModel.tables().stream()
+                    .filter(t -> t.definition().table().name().equals("PARENT")).findFirst().orElseThrow();
+            assertThat(parent.columns()).hasSize(2);
+            assertThat(parent.importedKeys()).isEmpty();
+        }
+    }
+
+    @Test
+    void getSchemaModelPatternTest() throws SQLException {
+        DataSource ds = ds();
+        try (Connection connection = ds.getConnection(); Statement statement = connection.createStatement()) {
+            for (String schema : List.of("S_1", "SX1")) {
+                statement.execute("CREATE SCHEMA \"" + schema + "\"");
+                statement.execute("CREATE TABLE \"" + schema + "\".PARENT (ID INT PRIMARY KEY)");
+                statement.execute("CREATE TABLE \"" + schema + "\".CHILD (ID INT, PARENT_ID INT REFERENCES \""
+                        + schema + "\".PARENT(ID))");
+            }
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+            // the name of the schema is no pattern
+            SchemaModel schemaModel = databaseService.getSchemaModel(databaseMetaData, new SchemaReferenceR("S_1"));
+            assertThat(schemaModel.tables()).extracting(t -> t.definition().table().schema().orElseThrow().name())
+                    .containsOnly("S_1").hasSize(2);
+            assertThat(schemaModel.tables()).flatExtracting(TableModel::importedKeys).hasSize(1);
+
+            // the imported keys of every schema the pattern matches
+            schemaModel = databaseService.getSchemaModel(databaseMetaData, null, "S%1", null);
+            assertThat(schemaModel.tables()).hasSize(4);
+            assertThat(schemaModel.tables()).flatExtracting(TableModel::importedKeys)
+                    .extracting(k -> k.foreignKeyColumn().table().orElseThrow().schema().orElseThrow().name())
+                    .containsExactlyInAnyOrder("S_1", "SX1");
+        }
+    }
+
 }
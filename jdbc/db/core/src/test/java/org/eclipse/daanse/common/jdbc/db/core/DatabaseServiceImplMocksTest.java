@@ -14,6 +14,9 @@
 package org.eclipse.daanse.common.jdbc.db.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -27,6 +30,7 @@ import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
 import org.eclipse.daanse.common.jdbc.db.api.meta.DatabaseInfo;
 import org.eclipse.daanse.common.jdbc.db.api.meta.IdentifierInfo;
 import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -78,4 +82,39 @@ class DatabaseServiceImplMocksTest {
         assertThat(identifierInfo.quoteString()).isEqualTo("\"");
     }
 
+    @Test
+    void getSchemaModelWithoutImportedKeysTest() throws SQLException {
+        mockTable();
+        when(databaseMetaData.getImportedKeys(null, "S", null)).thenReturn(resultSet);
+
+        SchemaModel schemaModel = databaseService.getSchemaModel(databaseMetaData, null, "S", null);
+
+        assertThat(schemaModel.tables()).hasSize(1);
+        assertThat(schemaModel.tables().get(0).importedKeys()).isEmpty();
+        // no keys in the schema is no reason to ask every table
+        verify(databaseMetaData, never()).getImportedKeys(null, "S", "T");
+    }
+
+    @Test
+    void getSchemaModelImportedKeysPerTableTest() throws SQLException {
+        mockTable();
+        when(databaseMetaData.getImportedKeys(null, "S", null)).thenThrow(new SQLException("table name missing"));
+        when(databaseMetaData.getImportedKeys(null, "S", "T")).thenReturn(resultSet);
+
+        SchemaModel schemaModel = databaseService.getSchemaModel(databaseMetaData, null, "S", null);
+
+        assertThat(schemaModel.tables()).hasSize(1);
+        verify(databaseMetaData).getImportedKeys(null, "S", "T");
+    }
+
+    private void mockTable() throws SQLException {
+        ResultSet tables = mock(ResultSet.class);
+        when(databaseMetaData.getTables(null, "S", null, null)).thenReturn(tables);
+        when(tables.next()).thenReturn(true, false);
+        when(tables.getString("TABLE_SCHEM")).thenReturn("S");
+        when(tables.getString("TABLE_NAME")).thenReturn("T");
+        when(databaseMetaData.getColumns(null, "S", null, null)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+    }
+
 }
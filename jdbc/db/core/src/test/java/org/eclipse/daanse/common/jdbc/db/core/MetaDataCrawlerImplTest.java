@@ -0,0 +1,120 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.SchemaReferenceR;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetaDataCrawlerImplTest {
+
+    private MetaDataCrawlerImpl crawler = new MetaDataCrawlerImpl();
+
+    private DataSource ds;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        h2.setPassword("sa");
+        ds = h2;
+
+        MetaDataCrawlerConfig config = mock(MetaDataCrawlerConfig.class);
+        when(config.connections()).thenReturn(3);
+        crawler.databaseService = new DatabaseServiceImpl();
+        crawler.activate(config);
+
+        try (Connection connection = ds.getConnection(); Statement statement = connection.createStatement()) {
+            for (int i = 0; i < 10; i++) {
+                statement.execute("CREATE SCHEMA S" + i);
+                statement.execute("CREATE TABLE S" + i + ".T1 (ID INT PRIMARY KEY)");
+                statement.execute("CREATE TABLE S" + i + ".T2 (ID INT, T1_ID INT REFERENCES S" + i + ".T1(ID))");
+            }
+            statement.execute("CREATE SCHEMA S_X");
+            statement.execute("CREATE TABLE S_X.T1 (ID INT PRIMARY KEY)");
+            statement.execute("CREATE TABLE S_X.T2 (ID INT, T1_ID INT REFERENCES S_X.T1(ID))");
+            statement.execute("CREATE SCHEMA SAX");
+            statement.execute("CREATE TABLE SAX.T3 (ID INT)");
+        }
+    }
+
+    @Test
+    void crawlAllTest() throws SQLException {
+        SchemaModel schemaModel = crawler.crawl(ds, List.of());
+
+        List<TableModel> tables = schemaModel.tables().stream()
+                .filter(t -> t.definition().table().schema().orElseThrow().name().startsWith("S"))
+                .toList();
+        assertThat(tables).hasSize(23);
+        assertThat(tables).filteredOn(t -> t.definition().table().name().equals("T2"))
+                .allSatisfy(t -> assertThat(t.importedKeys()).hasSize(1));
+    }
+
+    @Test
+    void crawlSchemasTest() throws SQLException {
+        SchemaModel schemaModel = crawler.crawl(ds,
+                List.of(new SchemaReferenceR("S2"), new SchemaReferenceR("S_X"), new SchemaReferenceR("S1")),
+                List.of());
+
+        // S_X is not used as pattern that matches SAX
+        assertThat(schemaModel.tables())
+                .extracting(t -> t.definition().table().schema().orElseThrow().name() + "."
+                        + t.definition().table().name())
+                .containsExactly("S2.T1", "S2.T2", "S_X.T1", "S_X.T2", "S1.T1", "S1.T2");
+        assertThat(schemaModel.tables()).filteredOn(t -> t.definition().table().name().equals("T2"))
+                .allSatisfy(t -> assertThat(t.importedKeys()).hasSize(1));
+    }
+
+    @Test
+    void crawlFailureTest() throws SQLException {
+        DatabaseService databaseService = spy(new DatabaseServiceImpl());
+        doThrow(new IllegalStateException("broken schema")).when(databaseService)
+                .getSchemaModel(any(DatabaseMetaData.class), any(), eq("S3"), any());
+        crawler.databaseService = databaseService;
+
+        // the failure of the worker, not a missing model
+        assertThatThrownBy(() -> crawler.crawl(ds, List.of())).isInstanceOf(IllegalStateException.class)
+                .hasMessage("broken schema");
+    }
+
+    @Test
+    void escapeTest() {
+        assertThat(DatabaseServiceImpl.escape("S_X%", "\\")).isEqualTo("S\\_X\\%");
+        assertThat(DatabaseServiceImpl.escape("A\\B", "\\")).isEqualTo("A\\\\B");
+        assertThat(DatabaseServiceImpl.escape("S_X", null)).isEqualTo("S_X");
+    }
+}
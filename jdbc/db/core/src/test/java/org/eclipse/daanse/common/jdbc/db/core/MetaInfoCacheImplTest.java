@@ -0,0 +1,190 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MetaInfoCacheImplTest {
+
+    @Mock
+    DatabaseService databaseService;
+    @Mock
+    MetaInfoCacheConfig config;
+    @Mock
+    MetaInfo metaInfo;
+
+    private MetaInfoCacheImpl metaInfoCache = new MetaInfoCacheImpl();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        metaInfoCache.databaseService = databaseService;
+        when(databaseService.createMetaInfo(any(Connection.class))).thenReturn(metaInfo);
+    }
+
+    private static DataSource ds(String url) throws SQLException {
+        DataSource ds = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+        when(ds.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        when(databaseMetaData.getURL()).thenReturn(url);
+        lenient().when(databaseMetaData.getUserName()).thenReturn("sa");
+        return ds;
+    }
+
+    @Test
+    void sharedSnapshotTest() throws SQLException {
+        when(config.timeToLive()).thenReturn(0L);
+        metaInfoCache.activate(config);
+
+        DataSource ds1 = ds("jdbc:h2:mem:a");
+        DataSource ds2 = ds("jdbc:h2:mem:a");
+        DataSource ds3 = ds("jdbc:h2:mem:b");
+
+        assertThat(metaInfoCache.getMetaInfo(ds1)).isSameAs(metaInfo);
+        assertThat(metaInfoCache.getMetaInfo(ds1)).isSameAs(metaInfo);
+        assertThat(metaInfoCache.getMetaInfo(ds2)).isSameAs(metaInfo);
+        verify(databaseService, times(1)).createMetaInfo(any(Connection.class));
+        // a known DataSource needs no connection
+        verify(ds1, times(1)).getConnection();
+
+        metaInfoCache.getMetaInfo(ds3);
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+    }
+
+    @Test
+    void invalidateTest() throws SQLException {
+        when(config.timeToLive()).thenReturn(0L);
+        metaInfoCache.activate(config);
+
+        DataSource ds1 = ds("jdbc:h2:mem:a");
+        DataSource ds2 = ds("jdbc:h2:mem:a");
+
+        metaInfoCache.getMetaInfo(ds1);
+        metaInfoCache.invalidate(ds1);
+        metaInfoCache.getMetaInfo(ds2);
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+
+        metaInfoCache.invalidateAll();
+        metaInfoCache.getMetaInfo(ds2);
+        verify(databaseService, times(3)).createMetaInfo(any(Connection.class));
+    }
+
+    @Test
+    void timeToLiveTest() throws SQLException, InterruptedException {
+        when(config.timeToLive()).thenReturn(20L);
+        metaInfoCache.activate(config);
+
+        DataSource ds = ds("jdbc:h2:mem:a");
+
+        metaInfoCache.getMetaInfo(ds);
+        metaInfoCache.getMetaInfo(ds);
+        verify(databaseService, times(1)).createMetaInfo(any(Connection.class));
+
+        Thread.sleep(50);
+        metaInfoCache.getMetaInfo(ds);
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+    }
+
+    @Test
+    void withoutUrlTest() throws SQLException {
+        when(config.timeToLive()).thenReturn(0L);
+        metaInfoCache.activate(config);
+
+        DataSource ds1 = ds(null);
+        DataSource ds2 = ds(null);
+
+        metaInfoCache.getMetaInfo(ds1);
+        metaInfoCache.getMetaInfo(ds1);
+        metaInfoCache.getMetaInfo(ds2);
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+    }
+
+    @Test
+    void failedReadTest() throws SQLException {
+        when(config.timeToLive()).thenReturn(0L);
+        metaInfoCache.activate(config);
+        when(databaseService.createMetaInfo(any(Connection.class))).thenThrow(new SQLException("read failed"))
+                .thenReturn(metaInfo);
+
+        DataSource ds = ds("jdbc:h2:mem:a");
+
+        assertThatThrownBy(() -> metaInfoCache.getMetaInfo(ds)).isInstanceOf(SQLException.class)
+                .hasMessage("read failed");
+        assertThat(metaInfoCache.getMetaInfo(ds)).isSameAs(metaInfo);
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+    }
+
+    @Test
+    void concurrentReadTest() throws Exception {
+        when(config.timeToLive()).thenReturn(0L);
+        metaInfoCache.activate(config);
+
+        DataSource ds1 = ds("jdbc:h2:mem:a");
+        DataSource ds2 = ds("jdbc:h2:mem:a");
+        DataSource ds3 = ds("jdbc:h2:mem:b");
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(databaseService.createMetaInfo(ds1.getConnection())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return metaInfo;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MetaInfo> first = executor.submit(() -> metaInfoCache.getMetaInfo(ds1));
+            assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<MetaInfo> second = executor.submit(() -> metaInfoCache.getMetaInfo(ds2));
+            // another database is read while the first read is running
+            assertThat(metaInfoCache.getMetaInfo(ds3)).isSameAs(metaInfo);
+            assertThat(second.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(metaInfo);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(metaInfo);
+        } finally {
+            executor.shutdownNow();
+        }
+        // the second caller waits for the read of the first
+        verify(databaseService, times(2)).createMetaInfo(any(Connection.class));
+    }
+}
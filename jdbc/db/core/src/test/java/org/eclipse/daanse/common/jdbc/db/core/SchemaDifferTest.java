@@ -0,0 +1,183 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff.TableDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.SqlStatement;
+import org.eclipse.daanse.common.jdbc.db.record.meta.ImportedKeyR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.SchemaModelR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.TableDefinitionR;
+import org.eclipse.daanse.common.jdbc.db.record.meta.TableModelR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.SchemaReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+class SchemaDifferTest {
+
+    private DatabaseService databaseService = new DatabaseServiceImpl();
+
+    private DataSource ds() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        ds.setPassword("sa");
+        return ds;
+    }
+
+    private static TableModel table(SchemaModel model, String name) {
+        return model.tables().stream().filter(t -> t.definition().table().name().equals(name)).findFirst()
+                .orElseThrow();
+    }
+
+    private static ColumnDefinition column(TableReference table, String name, JDBCType type, Integer size) {
+        return new ColumnDefinitionR(new ColumnReferenceR(Optional.of(table), name),
+                new ColumnMetaDataR(type, Optional.ofNullable(size), Optional.empty(), Optional.empty()));
+    }
+
+    @Test
+    void diffAndApplyTest() throws SQLException {
+        try (Connection connection = ds().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY)");
+            statement.execute("CREATE TABLE CHILD (ID INT, NAME VARCHAR(10), OLD INT)");
+            statement.execute("CREATE TABLE GONE (X INT)");
+            SchemaModel source = databaseService.getSchemaModel(connection.getMetaData(),
+                    new SchemaReferenceR("PUBLIC"));
+
+            TableModel parent = table(source, "PARENT");
+            TableModel child = table(source, "CHILD");
+            TableReference childTable = child.definition().table();
+            TableReference addedTable = new TableReferenceR(childTable.schema(), "ADDED", "TABLE");
+            SchemaModel target = new SchemaModelR(List.of(parent,
+                    new TableModelR(child.definition(),
+                            List.of(child.columns().get(0), column(childTable, "NAME", JDBCType.VARCHAR, 50),
+                                    column(childTable, "PARENT_ID", JDBCType.INTEGER, null)),
+                            List.of(new ImportedKeyR(
+                                    new ColumnReferenceR(Optional.of(parent.definition().table()), "ID"),
+                                    new ColumnReferenceR(Optional.of(childTable), "PARENT_ID")))),
+                    new TableModelR(new TableDefinitionR(addedTable, null),
+                            List.of(column(addedTable, "X", JDBCType.INTEGER, null)), List.of())));
+
+            SchemaDiff diff = databaseService.diffSchemaModels(source, target);
+            assertThat(diff.addedTables()).extracting(t -> t.definition().table().name()).containsExactly("ADDED");
+            assertThat(diff.removedTables()).extracting(t -> t.definition().table().name()).containsExactly("GONE");
+            assertThat(diff.alteredTables()).hasSize(1);
+            TableDiff tableDiff = diff.alteredTables().get(0);
+            assertThat(tableDiff.table().name()).isEqualTo("CHILD");
+            assertThat(tableDiff.addedColumns()).extracting(c -> c.column().name()).containsExactly("PARENT_ID");
+            assertThat(tableDiff.removedColumns()).extracting(c -> c.column().name()).containsExactly("OLD");
+            assertThat(tableDiff.alteredColumns()).extracting(c -> c.column().name()).containsExactly("NAME");
+            assertThat(tableDiff.addedKeys()).hasSize(1);
+            assertThat(tableDiff.removedKeys()).isEmpty();
+
+            List<SqlStatement> ddl = databaseService.getDdlStatements(diff);
+            assertThat(ddl).hasSize(6);
+            SqlStatementGenerator generator = databaseService
+                    .createSqlStatementGenerator(databaseService.createMetaInfo(connection));
+            for (SqlStatement sqlStatement : ddl) {
+                statement.execute(generator.getSqlOfStatement(sqlStatement));
+            }
+
+            SchemaModel applied = databaseService.getSchemaModel(connection.getMetaData(),
+                    new SchemaReferenceR("PUBLIC"));
+            SchemaDiff rest = databaseService.diffSchemaModels(applied, target);
+            assertThat(rest.addedTables()).isEmpty();
+            assertThat(rest.removedTables()).isEmpty();
+            assertThat(rest.alteredTables()).isEmpty();
+        }
+    }
+
+    @Test
+    void diffForeignKeysToSameTableTest() throws SQLException {
+        SchemaModel target;
+        try (Connection connection = ds().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY)");
+            statement.execute("CREATE TABLE CHILD (ID INT, A INT, B INT, C INT,"
+                    + " CONSTRAINT FK_A FOREIGN KEY(A) REFERENCES PARENT(ID),"
+                    + " CONSTRAINT FK_B FOREIGN KEY(B) REFERENCES PARENT(ID))");
+            target = databaseService.getSchemaModel(connection.getMetaData(), new SchemaReferenceR("PUBLIC"));
+        }
+
+        // another database, so the catalog differs
+        try (Connection connection = ds().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY)");
+            statement.execute("CREATE TABLE CHILD (ID INT, A INT, B INT, C INT,"
+                    + " CONSTRAINT FK_C FOREIGN KEY(C) REFERENCES PARENT(ID))");
+            SchemaModel source = databaseService.getSchemaModel(connection.getMetaData(),
+                    new SchemaReferenceR("PUBLIC"));
+
+            SchemaDiff diff = databaseService.diffSchemaModels(source, target);
+            assertThat(diff.addedTables()).isEmpty();
+            assertThat(diff.removedTables()).isEmpty();
+            assertThat(diff.alteredTables()).hasSize(1);
+            TableDiff tableDiff = diff.alteredTables().get(0);
+            assertThat(tableDiff.addedKeys()).extracting(k -> k.name().orElseThrow()).containsExactlyInAnyOrder("FK_A",
+                    "FK_B");
+            assertThat(tableDiff.removedKeys()).extracting(k -> k.name().orElseThrow()).containsExactly("FK_C");
+
+            SqlStatementGenerator generator = databaseService
+                    .createSqlStatementGenerator(databaseService.createMetaInfo(connection));
+            List<String> ddl = databaseService.getDdlStatements(diff).stream().map(generator::getSqlOfStatement)
+                    .toList();
+            assertThat(ddl).containsExactlyInAnyOrder(
+                    "ALTER TABLE \"PUBLIC\".\"CHILD\" DROP CONSTRAINT \"FK_C\"",
+                    "ALTER TABLE \"PUBLIC\".\"CHILD\" ADD CONSTRAINT \"FK_A\" FOREIGN KEY(\"A\")"
+                            + " REFERENCES \"PUBLIC\".\"PARENT\"(\"ID\")",
+                    "ALTER TABLE \"PUBLIC\".\"CHILD\" ADD CONSTRAINT \"FK_B\" FOREIGN KEY(\"B\")"
+                            + " REFERENCES \"PUBLIC\".\"PARENT\"(\"ID\")");
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+
+            SchemaModel applied = databaseService.getSchemaModel(connection.getMetaData(),
+                    new SchemaReferenceR("PUBLIC"));
+            assertThat(databaseService.diffSchemaModels(applied, target).alteredTables()).isEmpty();
+        }
+    }
+
+    @Test
+    void diffEqualTest() throws SQLException {
+        try (Connection connection = ds().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY)");
+            statement.execute("CREATE TABLE CHILD (ID INT, PARENT_ID INT REFERENCES PARENT(ID))");
+            SchemaModel model = databaseService.getSchemaModel(connection.getMetaData(),
+                    new SchemaReferenceR("PUBLIC"));
+
+            SchemaDiff diff = databaseService.diffSchemaModels(model, model);
+            assertThat(databaseService.getDdlStatements(diff)).isEmpty();
+        }
+    }
+}
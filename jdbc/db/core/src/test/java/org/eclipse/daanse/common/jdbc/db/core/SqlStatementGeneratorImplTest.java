@@ -30,11 +30,21 @@ import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.SchemaReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddColumnSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddForeignKeySqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddPrimaryKeySqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AlterColumnTypeSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateContainerSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateIndexSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateSchemaSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DeleteSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropColumnSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropConstraintSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropContainerSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropSchemaSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.InsertSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.RenameContainerSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.SelectSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.TruncateTableSqlStatementR;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -215,4 +225,151 @@ class SqlStatementGeneratorImplTest {
         assertThat(sql).isEqualTo("INSERT INTO #theSchemaName#.#theTableName#(#Col1#) VALUES (?)");
     }
 
+    @Test
+    void deleteAllNoSchema() {
+        String sql = generator.getSqlOfStatement(
+                new DeleteSqlStatementR(new TableReferenceR("theTableName"), List.of(), List.of()));
+        assertThat(sql).isEqualTo("DELETE FROM #theTableName#");
+    }
+
+    @Test
+    void deleteWithSchemaWithWhere() {
+        String sql = generator.getSqlOfStatement(new DeleteSqlStatementR(
+                new TableReferenceR(Optional.of(new SchemaReferenceR("theSchemaName")), "theTableName", "TABLE"),
+                List.of(new ColumnReferenceR("Col1"), new ColumnReferenceR("Col2")), List.of("?", "1")));
+        assertThat(sql).isEqualTo("DELETE FROM #theSchemaName#.#theTableName# WHERE #Col1# = ? AND #Col2# = 1");
+    }
+
+    @Test
+    void selectAllColumnsNoWhere() {
+        String sql = generator.getSqlOfStatement(
+                new SelectSqlStatementR(new TableReferenceR("theTableName"), List.of(), List.of(), List.of()));
+        assertThat(sql).isEqualTo("SELECT * FROM #theTableName#");
+    }
+
+    @Test
+    void selectColumnsWithWhere() {
+        String sql = generator.getSqlOfStatement(new SelectSqlStatementR(
+                new TableReferenceR(Optional.of(new SchemaReferenceR("theSchemaName")), "theTableName", "TABLE"),
+                List.of(new ColumnReferenceR("Col1"), new ColumnReferenceR("Col2")),
+                List.of(new ColumnReferenceR("Col1")), List.of("?")));
+        assertThat(sql).isEqualTo("SELECT #Col1#, #Col2# FROM #theSchemaName#.#theTableName# WHERE #Col1# = ?");
+    }
+
+    @Test
+    void renameTableNoSchemaNoExist() {
+        String sql = generator.getSqlOfStatement(
+                new RenameContainerSqlStatementR(new TableReferenceR("theTableName"), "theNewName", false));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# RENAME TO #theNewName#");
+    }
+
+    @Test
+    void renameTableWithSchemaWithExist() {
+        String sql = generator.getSqlOfStatement(new RenameContainerSqlStatementR(
+                new TableReferenceR(Optional.of(new SchemaReferenceR("theSchemaName")), "theTableName", "TABLE"),
+                "theNewName", true));
+        assertThat(sql).isEqualTo("ALTER TABLE IF EXISTS #theSchemaName#.#theTableName# RENAME TO #theNewName#");
+    }
+
+    @Test
+    void createIndex() {
+        String sql = generator.getSqlOfStatement(new CreateIndexSqlStatementR("theIndexName",
+                new TableReferenceR(Optional.of(new SchemaReferenceR("theSchemaName")), "theTableName", "TABLE"),
+                List.of(new ColumnReferenceR("c1"), new ColumnReferenceR("c2")), false, false));
+        assertThat(sql).isEqualTo("CREATE INDEX #theIndexName# ON #theSchemaName#.#theTableName#(#c1#, #c2#)");
+    }
+
+    @Test
+    void createUniqueIndexNoExist() {
+        String sql = generator.getSqlOfStatement(new CreateIndexSqlStatementR("theIndexName",
+                new TableReferenceR("theTableName"), List.of(new ColumnReferenceR("c1")), true, true));
+        assertThat(sql).isEqualTo("CREATE UNIQUE INDEX IF NOT EXISTS #theIndexName# ON #theTableName#(#c1#)");
+    }
+
+    @Test
+    void addPrimaryKey() {
+        String sql = generator.getSqlOfStatement(new AddPrimaryKeySqlStatementR(new TableReferenceR("theTableName"),
+                Optional.empty(), List.of(new ColumnReferenceR("c1"), new ColumnReferenceR("c2"))));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# ADD PRIMARY KEY(#c1#, #c2#)");
+    }
+
+    @Test
+    void addNamedPrimaryKey() {
+        String sql = generator.getSqlOfStatement(new AddPrimaryKeySqlStatementR(new TableReferenceR("theTableName"),
+                Optional.of("thePk"), List.of(new ColumnReferenceR("c1"))));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# ADD CONSTRAINT #thePk# PRIMARY KEY(#c1#)");
+    }
+
+    @Test
+    void createTableTypeByPrecision() {
+        TypeInfo typeInfoShortText = Mockito.mock(TypeInfo.class);
+        TypeInfo typeInfoLongText = Mockito.mock(TypeInfo.class);
+        when(typeInfoShortText.typeName()).thenReturn("varchar");
+        when(typeInfoShortText.dataType()).thenReturn(JDBCType.VARCHAR);
+        when(typeInfoShortText.percision()).thenReturn(255);
+        when(typeInfoLongText.typeName()).thenReturn("text");
+        when(typeInfoLongText.dataType()).thenReturn(JDBCType.VARCHAR);
+        when(typeInfoLongText.percision()).thenReturn(65535);
+        SqlStatementGenerator precisionGenerator = new SqlStatementGeneratorImpl(
+                new MetaInfoR(new DatabaseInfoR("", "", 0, 0), new IdentifierInfoR("#"),
+                        List.of(typeInfoShortText, typeInfoLongText, typeInfoInt), List.of()));
+
+        String sql = precisionGenerator.getSqlOfStatement(new CreateContainerSqlStatementR(
+                new TableReferenceR("theTableName"),
+                List.of(new ColumnDefinitionR(new ColumnReferenceR("Col1"),
+                        new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(200), Optional.empty(), Optional.empty())),
+                        new ColumnDefinitionR(new ColumnReferenceR("Col2"),
+                                new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(1000), Optional.empty(),
+                                        Optional.empty())),
+                        new ColumnDefinitionR(new ColumnReferenceR("Col3"),
+                                new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(100000), Optional.empty(),
+                                        Optional.empty())),
+                        new ColumnDefinitionR(new ColumnReferenceR("Col4"),
+                                new ColumnMetaDataR(JDBCType.VARCHAR, Optional.empty(), Optional.empty(),
+                                        Optional.empty()))),
+                false));
+        assertThat(sql).isEqualTo("CREATE TABLE #theTableName#( #Col1# varchar(200), #Col2# text(1000), "
+                + "#Col3# text(100000), #Col4# varchar)");
+    }
+
+    @Test
+    void addColumn() {
+        String sql = generator.getSqlOfStatement(new AddColumnSqlStatementR(new TableReferenceR("theTableName"),
+                new ColumnDefinitionR(new ColumnReferenceR("Col1"),
+                        new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(20), Optional.empty(), Optional.empty()))));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# ADD #Col1# varchar(20)");
+    }
+
+    @Test
+    void dropColumn() {
+        String sql = generator.getSqlOfStatement(new DropColumnSqlStatementR(
+                new TableReferenceR(Optional.of(new SchemaReferenceR("theSchemaName")), "theTableName", "TABLE"),
+                new ColumnReferenceR("Col1")));
+        assertThat(sql).isEqualTo("ALTER TABLE #theSchemaName#.#theTableName# DROP COLUMN #Col1#");
+    }
+
+    @Test
+    void alterColumnType() {
+        String sql = generator.getSqlOfStatement(new AlterColumnTypeSqlStatementR(new TableReferenceR("theTableName"),
+                new ColumnDefinitionR(new ColumnReferenceR("Col1"),
+                        new ColumnMetaDataR(JDBCType.INTEGER, Optional.empty(), Optional.empty(), Optional.empty()))));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# ALTER COLUMN #Col1# SET DATA TYPE int");
+    }
+
+    @Test
+    void addForeignKey() {
+        String sql = generator.getSqlOfStatement(new AddForeignKeySqlStatementR(new TableReferenceR("theTableName"),
+                Optional.of("theFk"), List.of(new ColumnReferenceR("c1")), new TableReferenceR("theOtherTable"),
+                List.of(new ColumnReferenceR("id"))));
+        assertThat(sql).isEqualTo(
+                "ALTER TABLE #theTableName# ADD CONSTRAINT #theFk# FOREIGN KEY(#c1#) REFERENCES #theOtherTable#(#id#)");
+    }
+
+    @Test
+    void dropConstraint() {
+        String sql = generator
+                .getSqlOfStatement(new DropConstraintSqlStatementR(new TableReferenceR("theTableName"), "theFk"));
+        assertThat(sql).isEqualTo("ALTER TABLE #theTableName# DROP CONSTRAINT #theFk#");
+    }
+
 }
@@ -13,9 +13,15 @@
 */
 package org.eclipse.daanse.common.jdbc.db.record.meta;
 
+import java.util.Optional;
+
 import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 
-public record ImportedKeyR(ColumnReference primaryKeyColumn, ColumnReference foreignKeyColumn) implements ImportedKey {
+public record ImportedKeyR(ColumnReference primaryKeyColumn, ColumnReference foreignKeyColumn, Optional<String> name,
+        int keySequence) implements ImportedKey {
 
+    public ImportedKeyR(ColumnReference primaryKeyColumn, ColumnReference foreignKeyColumn) {
+        this(primaryKeyColumn, foreignKeyColumn, Optional.empty(), 1);
+    }
 }
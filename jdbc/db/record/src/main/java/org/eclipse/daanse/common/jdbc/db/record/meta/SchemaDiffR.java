@@ -0,0 +1,29 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.record.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+
+public record SchemaDiffR(List<TableModel> addedTables, List<TableModel> removedTables, List<TableDiff> alteredTables)
+        implements SchemaDiff {
+
+    public SchemaDiffR {
+        addedTables = List.copyOf(addedTables);
+        removedTables = List.copyOf(removedTables);
+        alteredTables = List.copyOf(alteredTables);
+    }
+}
@@ -0,0 +1,25 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.record.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel;
+
+public record SchemaModelR(List<TableModel> tables) implements SchemaModel {
+
+    public SchemaModelR {
+        tables = List.copyOf(tables);
+    }
+}
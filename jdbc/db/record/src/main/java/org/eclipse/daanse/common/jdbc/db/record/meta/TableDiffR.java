@@ -0,0 +1,34 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.record.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaDiff.TableDiff;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+public record TableDiffR(TableReference table, List<ColumnDefinition> addedColumns,
+        List<ColumnDefinition> removedColumns, List<ColumnDefinition> alteredColumns, List<ImportedKey> addedKeys,
+        List<ImportedKey> removedKeys) implements TableDiff {
+
+    public TableDiffR {
+        addedColumns = List.copyOf(addedColumns);
+        removedColumns = List.copyOf(removedColumns);
+        alteredColumns = List.copyOf(alteredColumns);
+        addedKeys = List.copyOf(addedKeys);
+        removedKeys = List.copyOf(removedKeys);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.db.record.meta;
+
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.meta.ImportedKey;
+import org.eclipse.daanse.common.jdbc.db.api.meta.SchemaModel.TableModel;
+import org.eclipse.daanse.common.jdbc.db.api.meta.TableDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+
+public record TableModelR(TableDefinition definition, List<ColumnDefinition> columns, List<ImportedKey> importedKeys)
+        implements TableModel {
+
+    public TableModelR {
+        columns = List.copyOf(columns);
+        importedKeys = List.copyOf(importedKeys);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Creates instances of component property types outside of an OSGi framework.
+ * A method returns the value of the map with the method name as key, otherwise
+ * its default value.
+ */
+final class AnnotationConfigs {
+
+    private AnnotationConfigs() {
+    }
+
+    static <A> A of(Class<A> type, Map<String, Object> values) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> {
+            String name = method.getName();
+            if (values.containsKey(name)) {
+                return values.get(name);
+            }
+            return switch (name) {
+            case "annotationType" -> type;
+            case "hashCode" -> System.identityHashCode(p);
+            case "equals" -> p == args[0];
+            case "toString" -> type.getSimpleName() + values;
+            default -> method.getDefaultValue();
+            };
+        });
+        return type.cast(proxy);
+    }
+}
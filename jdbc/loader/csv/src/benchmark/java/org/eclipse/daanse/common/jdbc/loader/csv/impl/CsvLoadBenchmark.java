@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.MetaInfoCache;
+import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
+import org.eclipse.daanse.common.jdbc.db.core.DatabaseServiceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the load of one generated csv file with the {@link CsvDataLoader}
+ * into an embedded in-memory H2 database.
+ * Besides the loads per second, the {@link Throughput} counters report rows/s
+ * and bytes/s. The {@link #main(String[])} method adds the {@link GCProfiler},
+ * which reports the allocation rate as {@code gc.alloc.rate} and
+ * {@code gc.alloc.rate.norm}.
+ *
+ * The benchmark is a test source of the {@code benchmark} profile, so it is
+ * neither part of the bundle nor of its tests:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="-p shape=WIDE -p rows=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class CsvLoadBenchmark {
+
+    @Param({ "NARROW", "WIDE", "NUMERIC", "STRING" })
+    public CsvShape shape;
+
+    @Param({ "100000" })
+    public long rows;
+
+    @Param({ "1000" })
+    public int batchSize;
+
+    @Param({ "1" })
+    public int writerConnections;
+
+    @Param({ "false" })
+    public boolean memoryMappedRead;
+
+    @Param({ "false" })
+    public boolean bulkLoad;
+
+    @Param({ "false" })
+    public boolean offHeapStaging;
+
+    private Path directory;
+    private Path csvFile;
+    private long csvBytes;
+    private CsvDataLoader loader;
+
+    /**
+     * Rows and bytes loaded per operation, reported as rate per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Throughput {
+
+        public long rows;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("csv-load-benchmark");
+        csvFile = directory.resolve(shape.name().toLowerCase() + ".csv");
+        try (Writer writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            shape.write(writer, rows);
+        }
+        csvBytes = Files.size(csvFile);
+
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        loader = new CsvDataLoader();
+        loader.dataSource = createDataSource();
+        loader.databaseService = databaseService;
+        loader.metaInfoCache = new UncachedMetaInfo(databaseService);
+        loader.activate(AnnotationConfigs.of(CsvDataLoaderConfig.class,
+                Map.of("batchSize", batchSize, "writerConnections", writerConnections, "memoryMappedRead",
+                        memoryMappedRead, "bulkLoad", bulkLoad, "offHeapStaging", offHeapStaging, "maxConnections",
+                        writerConnections + 1)));
+        loader.handleBasePath(directory);
+    }
+
+    /**
+     * @return a {@code memFS} database of an unique name, like the tests use
+     */
+    private static DataSource createDataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:memFS:csv-load-benchmark-" + UUID.randomUUID());
+        return dataSource;
+    }
+
+    /**
+     * Reads the {@link MetaInfo} on every call, the loader reads it once when
+     * activated.
+     */
+    private record UncachedMetaInfo(DatabaseService databaseService) implements MetaInfoCache {
+
+        @Override
+        public MetaInfo getMetaInfo(DataSource dataSource) throws SQLException {
+            return databaseService.createMetaInfo(dataSource);
+        }
+
+        @Override
+        public void invalidate(DataSource dataSource) {
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loader.deactivate();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void load(Throughput throughput) {
+        loader.handlePathEvent(csvFile, StandardWatchEventKinds.ENTRY_MODIFY);
+        throughput.rows += rows;
+        throughput.bytes += csvBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                .include(CsvLoadBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of the generated benchmark csv files. Every file starts with a header
+ * row and a types row, followed by the generated records.
+ */
+enum CsvShape {
+
+    /** few columns of mixed types */
+    NARROW(List.of("INTEGER", "BIGINT", "VARCHAR(40)", "DECIMAL")),
+
+    /** many columns of mixed types */
+    WIDE(repeat(List.of("INTEGER", "BIGINT", "VARCHAR(40)", "DECIMAL", "DATE", "BOOLEAN", "SMALLINT",
+            "TIMESTAMP"), 8)),
+
+    /** numeric columns only */
+    NUMERIC(repeat(List.of("INTEGER", "BIGINT", "DECIMAL", "SMALLINT"), 4)),
+
+    /** long text columns only */
+    STRING(repeat(List.of("VARCHAR(200)"), 12));
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+    private final List<String> types;
+
+    CsvShape(List<String> types) {
+        this.types = types;
+    }
+
+    private static List<String> repeat(List<String> types, int times) {
+        List<String> result = new ArrayList<>(types.size() * times);
+        for (int i = 0; i < times; i++) {
+            result.addAll(types);
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Writes the header row, the types row and {@code rows} records. The values
+     * are derived from a fixed seed, so every run loads the same file.
+     */
+    void write(Writer writer, long rows) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        for (int i = 0; i < types.size(); i++) {
+            line.append(i == 0 ? "" : ",").append("c").append(i);
+        }
+        writer.append(line).append('\n');
+        writer.append(String.join(",", types)).append('\n');
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (long row = 0; row < rows; row++) {
+            line.setLength(0);
+            for (int i = 0; i < types.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendValue(line, types.get(i), row, random);
+            }
+            writer.append(line).append('\n');
+        }
+    }
+
+    private static void appendValue(StringBuilder line, String type, long row, SplittableRandom random) {
+        switch (type) {
+        case "INTEGER" -> line.append(row);
+        case "BIGINT" -> line.append(random.nextLong());
+        case "DECIMAL" -> line.append(random.nextInt(1_000_000)).append('.').append(random.nextInt(100));
+        case "SMALLINT" -> line.append(random.nextInt(Short.MAX_VALUE));
+        case "BOOLEAN" -> line.append(random.nextBoolean());
+        case "DATE" -> line.append("2024-0").append(1 + random.nextInt(9)).append('-')
+                .append(10 + random.nextInt(18));
+        case "TIMESTAMP" -> line.append("2024-05-").append(10 + random.nextInt(18)).append(' ')
+                .append(10 + random.nextInt(13)).append(":15:30.005");
+        case "VARCHAR(40)" -> appendText(line, 8 + random.nextInt(32), random);
+        default -> appendText(line, 40 + random.nextInt(160), random);
+        }
+    }
+
+    private static void appendText(StringBuilder line, int length, SplittableRandom random) {
+        for (int i = 0; i < length; i++) {
+            line.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+    }
+}
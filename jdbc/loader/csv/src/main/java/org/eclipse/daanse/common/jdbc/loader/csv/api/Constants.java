@@ -22,6 +22,8 @@ public class Constants {
 
     public static final String PID_LOADER_FILEWATCHER = "org.eclipse.daanse.common.jdbc.loader.csv.FileWatchingLoader";
 
+    public static final String PID_EXPORTER = "org.eclipse.daanse.common.jdbc.loader.csv.Exporter";
+
     public static final String PROPERETY_CSV_NULL_VALUE = "nullValue";
     public static final String PROPERETY_CSV_QUOTE_CHARACHTER = "quoteCharacter";
     public static final String PROPERETY_CSV_FIELD_SEPARATOR = "fieldSeparator";
@@ -31,5 +33,35 @@ public class Constants {
     public static final String PROPERETY_CSV_IGNORE_DIFFERENT_FIELD_COUNT = "ignoreDifferentFieldCount";
 
     public static final String PROPERETY_JDBC_BATCH = "batchSize";
+    public static final String PROPERETY_JDBC_WRITER_CONNECTIONS = "writerConnections";
+    public static final String PROPERETY_PIPELINE_QUEUE_CAPACITY = "pipelineQueueCapacity";
+    public static final String PROPERETY_JDBC_BULK_LOAD = "bulkLoad";
+    public static final String PROPERETY_INCREMENTAL_LOAD = "incrementalLoad";
+    public static final String PROPERETY_LOAD_STATE_TABLE = "loadStateTable";
+    public static final String PROPERETY_SHADOW_TABLE_LOAD = "shadowTableLoad";
+    public static final String PROPERETY_SHADOW_TABLE_SUFFIX = "shadowTableSuffix";
+    public static final String PROPERETY_LOADER_THREADS = "loaderThreads";
+    public static final String PROPERETY_MAX_CONNECTIONS = "maxConnections";
+    public static final String PROPERETY_CSV_HEADER_ROW = "headerRow";
+    public static final String PROPERETY_CSV_TYPES_ROW = "typesRow";
+    public static final String PROPERETY_TYPE_INFERENCE_SAMPLE_SIZE = "typeInferenceSampleSize";
+    public static final String PROPERETY_MEMORY_MAPPED_READ = "memoryMappedRead";
+    public static final String PROPERETY_PARSE_THREADS = "parseThreads";
+    public static final String PROPERETY_ADAPTIVE_BATCH_SIZE = "adaptiveBatchSize";
+    public static final String PROPERETY_BATCH_TARGET_LATENCY = "batchTargetLatency";
+    public static final String PROPERETY_MIN_BATCH_SIZE = "minBatchSize";
+    public static final String PROPERETY_MAX_BATCH_SIZE = "maxBatchSize";
+    public static final String PROPERETY_MAX_BATCH_BYTES = "maxBatchBytes";
+    public static final String PROPERETY_COMMIT_ROW_INTERVAL = "commitRowInterval";
+    public static final String PROPERETY_MAX_REJECTED_ROWS = "maxRejectedRows";
+    public static final String PROPERETY_INDEX_THREADS = "indexThreads";
+    public static final String PROPERETY_SKIP_UNCHANGED_FILES = "skipUnchangedFiles";
+    public static final String PROPERETY_FINGERPRINT_TABLE = "fingerprintTable";
+    public static final String PROPERETY_RELOAD_QUIET_PERIOD = "reloadQuietPeriod";
+    public static final String PROPERETY_EXPORT_FETCH_SIZE = "fetchSize";
+    public static final String PROPERETY_EXPORT_WRITE_BUFFER_SIZE = "writeBufferSize";
+    public static final String PROPERETY_PARTITION_PATTERN = "partitionPattern";
+    public static final String PROPERETY_PARTITION_COLUMN = "partitionColumn";
+    public static final String PROPERETY_OFF_HEAP_STAGING = "offHeapStaging";
 
 }
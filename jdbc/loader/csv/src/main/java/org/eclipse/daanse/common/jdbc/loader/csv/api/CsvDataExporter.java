@@ -0,0 +1,37 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.loader.csv.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+/**
+ * Writes a table to a csv file in the format the csv loader reads: a header row
+ * with the column names and a row with the JDBC types of the columns.
+ */
+public interface CsvDataExporter {
+
+    /**
+     * Exports the table. The rows are streamed, so the table may be larger than
+     * the memory. The target file is replaced when the export is complete.
+     *
+     * @param table  the table to export
+     * @param target the csv file to write
+     * @return count of exported rows
+     */
+    long export(TableReference table, Path target) throws IOException, SQLException;
+}
@@ -0,0 +1,113 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.loader.csv.api;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Metrics of one load of one csv file. The parse time against the database
+ * time tells whether a slow load is bound by parsing or by the database.
+ */
+public interface CsvFileLoadMetrics {
+
+    /**
+     * Upper bounds in milliseconds of the buckets of
+     * {@link #batchLatencyHistogram()}. The last bucket has no upper bound.
+     */
+    List<Long> BATCH_LATENCY_BOUNDS_MILLIS = List.of(1L, 2L, 5L, 10L, 20L, 50L, 100L, 200L, 500L, 1000L, 2000L,
+            5000L);
+
+    enum State {
+        RUNNING, FINISHED, FAILED, CANCELLED
+    }
+
+    /**
+     * @return the file, relative to the base path of the loader
+     */
+    String file();
+
+    State state();
+
+    Instant started();
+
+    Optional<Instant> finished();
+
+    /**
+     * @return the message of the exception that stopped a failed load
+     */
+    Optional<String> failure();
+
+    /**
+     * @return the name of the strategy that loads the rows, like
+     *         {@code batchInsert}, {@code mappedRead} or {@code h2CsvRead}, empty
+     *         until the strategy is selected
+     */
+    Optional<String> strategy();
+
+    long rowsParsed();
+
+    long rowsInserted();
+
+    /**
+     * @return the csv bytes of the inserted rows
+     */
+    long bytesRead();
+
+    /**
+     * @return the csv bytes to load, empty if unknown like for compressed files
+     */
+    OptionalLong totalBytes();
+
+    long parseErrors();
+
+    /**
+     * @return time spent reading, parsing and converting the records, summed up
+     *         over all threads
+     */
+    Duration parseTime();
+
+    /**
+     * @return time spent executing batches and commits, summed up over all
+     *         connections
+     */
+    Duration databaseTime();
+
+    /**
+     * @return count of executed batches per bucket of
+     *         {@link #BATCH_LATENCY_BOUNDS_MILLIS}, one more than bounds
+     */
+    long[] batchLatencyHistogram();
+
+    /**
+     * @return inserted rows per second, recent rate while running and average
+     *         rate when done
+     */
+    double rowsPerSecond();
+
+    /**
+     * @return csv bytes per second, recent rate while running and average rate
+     *         when done
+     */
+    double bytesPerSecond();
+
+    /**
+     * @return estimated time until the load is done, empty if not running or the
+     *         total bytes are unknown
+     */
+    Optional<Duration> eta();
+}
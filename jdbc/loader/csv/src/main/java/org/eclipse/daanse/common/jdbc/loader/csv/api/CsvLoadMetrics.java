@@ -0,0 +1,35 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.jdbc.loader.csv.api;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service of a csv loader that exposes the metrics of its file loads.
+ */
+public interface CsvLoadMetrics {
+
+    /**
+     * @return the watched directory of the loader, if known yet
+     */
+    Optional<Path> basePath();
+
+    /**
+     * @return the metrics of the running and the last finished load of every
+     *         file
+     */
+    List<CsvFileLoadMetrics> fileLoads();
+}
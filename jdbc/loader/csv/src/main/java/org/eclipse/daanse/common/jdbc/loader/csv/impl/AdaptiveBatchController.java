@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controls the size of the JDBC batches and the commits of one csv load. The
+ * latency of every executed batch is measured and the next batch is grown or
+ * shrunk, so a batch executes in about the target latency. On a local database
+ * the batches grow until they reach the max batch size or bytes, on a remote
+ * database the batches grow until the round trip is amortized. Commits are
+ * decoupled from the batches and happen every commit row interval.
+ * <p>
+ * One controller is shared by all writers of a {@link CsvLoadPipeline}. Every
+ * executed batch is reported to the {@link CsvLoadTracker} of the load.
+ */
+final class AdaptiveBatchController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveBatchController.class);
+
+    /** a batch is changed by at most this factor, so single outliers are damped */
+    private static final double MAX_STEP = 2.0;
+
+    private final boolean adaptive;
+    private final long targetLatencyNanos;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long commitRowInterval;
+    private final CsvLoadTracker tracker;
+
+    private volatile int batchSize;
+    private double bytesPerRow;
+
+    AdaptiveBatchController(CsvDataLoaderConfig config, CsvLoadTracker tracker) {
+        this.adaptive = config.adaptiveBatchSize();
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.batchTargetLatency()));
+        this.minBatchSize = Math.max(1, config.minBatchSize());
+        this.maxBatchSize = Math.max(minBatchSize, config.maxBatchSize());
+        this.maxBatchBytes = Math.max(1, config.maxBatchBytes());
+        this.commitRowInterval = Math.max(0, config.commitRowInterval());
+        this.tracker = tracker;
+        int initial = Math.max(1, config.batchSize());
+        this.batchSize = adaptive ? clamp(initial) : initial;
+    }
+
+    CsvLoadTracker tracker() {
+        return tracker;
+    }
+
+    /**
+     * @return count of rows of the next batch
+     */
+    int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Records an executed batch and calculates the size of the next batch.
+     *
+     * @param rows  count of rows in the batch
+     * @param bytes count of csv bytes in the batch
+     * @param nanos execution time of the batch
+     */
+    void batchExecuted(int rows, long bytes, long nanos) {
+        tracker.batchExecuted(rows, bytes, nanos);
+        if (adaptive && rows > 0) {
+            adapt(rows, bytes, nanos);
+        }
+    }
+
+    private synchronized void adapt(int rows, long bytes, long nanos) {
+        double rowBytes = (double) bytes / rows;
+        bytesPerRow = bytesPerRow == 0 ? rowBytes : (bytesPerRow + rowBytes) / 2;
+
+        int current = batchSize;
+        if (rows < current) {
+            // the last batch of a file is smaller, its latency tells nothing
+            return;
+        }
+        double factor = (double) targetLatencyNanos / Math.max(1, nanos);
+        factor = Math.max(1 / MAX_STEP, Math.min(MAX_STEP, factor));
+        int next = clamp((long) (current * factor));
+        if (next != current) {
+            LOGGER.debug("batch of {} rows, {} bytes executed in {} ms, next batch size {}", rows, bytes,
+                    TimeUnit.NANOSECONDS.toMillis(nanos), next);
+            batchSize = next;
+        }
+    }
+
+    /**
+     * @param uncommittedRows count of rows executed since the last commit
+     * @return true if the rows should be committed now
+     */
+    boolean isCommitDue(long uncommittedRows) {
+        return commitRowInterval > 0 && uncommittedRows >= commitRowInterval;
+    }
+
+    private int clamp(long size) {
+        long max = maxBatchSize;
+        if (bytesPerRow > 0) {
+            max = Math.min(max, Math.max(minBatchSize, (long) (maxBatchBytes / bytesPerRow)));
+        }
+        return (int) Math.max(minBatchSize, Math.min(max, size));
+    }
+}
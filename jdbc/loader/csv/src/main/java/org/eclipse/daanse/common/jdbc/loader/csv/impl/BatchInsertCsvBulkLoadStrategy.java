@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.statement.InsertSqlStatement;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.InsertSqlStatementR;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.siegmar.fastcsv.reader.CsvRecord;
+
+/**
+ * Database independent {@link CsvBulkLoadStrategy} that inserts the records
+ * with JDBC batches of a {@link PreparedStatement}. It is able to load every
+ * request and is used as fallback. A request the caller commits is loaded on
+ * its connection only, without pipeline and intermediate commits.
+ */
+final class BatchInsertCsvBulkLoadStrategy implements CsvBulkLoadStrategy {
+
+    static final String NAME = "batchInsert";
+
+    static final String EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT = "Exception while setting value to PreparedStatement";
+
+    private static final String EXCEPTION_WHILE_WRITING_REJECTED_ROWS = "Exception while writing rejected rows";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchInsertCsvBulkLoadStrategy.class);
+
+    private final ConnectionGate connectionGate;
+    private final CsvDataLoaderConfig config;
+    private final SqlStatementGenerator sqlStatementGenerator;
+
+    BatchInsertCsvBulkLoadStrategy(ConnectionGate connectionGate, CsvDataLoaderConfig config,
+            SqlStatementGenerator sqlStatementGenerator) {
+        this.connectionGate = connectionGate;
+        this.config = config;
+        this.sqlStatementGenerator = sqlStatementGenerator;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canLoad(Connection connection, CsvLoadRequest request) {
+        return true;
+    }
+
+    @Override
+    public long load(Connection connection, CsvLoadRequest request) throws SQLException {
+
+        List<ColumnDefinition> headersTypeList = request.columns();
+        int[] positions = getColumnPositions(request.header(), headersTypeList);
+        CsvFieldBinder[] binders = CsvFieldBinder.compile(headersTypeList, config.nullValue());
+
+        String sql = getInsertSql(sqlStatementGenerator, request);
+        CsvLoadTracker tracker = request.tracker();
+        AdaptiveBatchController batchController = new AdaptiveBatchController(config, tracker);
+
+        try (CsvRejectWriter rejects = config.maxRejectedRows() == 0 ? null
+                : new CsvRejectWriter(request.path(), request.appendRejects(), config.maxRejectedRows(), tracker)) {
+            if (!request.commit()) {
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    return batchExecute(connection, ps, request.records(), binders, positions, batchController,
+                            rejects, false, request.lineOffset());
+                }
+            }
+            if (config.writerConnections() > 1 && config.offHeapStaging() && rejects == null) {
+                CsvRowStaging.Pool<CsvRecord> pool = new CsvRowStaging.Pool<>(headersTypeList, config.nullValue(),
+                        tracker, (r, column) -> getField(r, positions[column]));
+                CsvLoadPipeline<CsvRecord, CsvRowStaging<CsvRecord>> pipeline = new CsvLoadPipeline<>(
+                        connectionGate, config.writerConnections(), config.pipelineQueueCapacity(), batchController,
+                        pool::take);
+                return pipeline.run(connection, sql, request.records(), (ps, chunk) -> chunk.bind(ps));
+            }
+            if (config.writerConnections() > 1) {
+                CsvLoadPipeline<CsvRecord, CsvLoadPipeline.ListChunk<CsvRecord>> pipeline = new CsvLoadPipeline<>(
+                        connectionGate, config.writerConnections(), config.pipelineQueueCapacity(), batchController,
+                        CsvLoadPipeline.ListChunk::new);
+                return pipeline.run(connection, sql, request.records(), (ps, chunk) -> bindChunk(ps,
+                        chunk.records(), binders, positions, tracker, rejects, request.lineOffset()));
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                return batchExecute(connection, ps, request.records(), binders, positions, batchController,
+                        rejects, true, request.lineOffset());
+            }
+        } catch (IOException e) {
+            throw new CsvDataLoaderException(EXCEPTION_WHILE_WRITING_REJECTED_ROWS, e);
+        }
+    }
+
+    /**
+     * @param commit     true to commit every commit interval and at the end,
+     *                   false to leave the rows to the transaction of the caller
+     * @param lineOffset added to the line numbers of rejected records
+     */
+    private static long batchExecute(Connection connection, PreparedStatement ps, Iterator<CsvRecord> it,
+            CsvFieldBinder[] binders, int[] positions, AdaptiveBatchController batchController,
+            CsvRejectWriter rejects, boolean commit, long lineOffset) throws SQLException {
+
+        CsvLoadTracker tracker = batchController.tracker();
+        boolean autoCommit = connection.getAutoCommit();
+        if (commit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            long count = 0;
+            long uncommitted = 0;
+            int parsed = 0;
+            int rows = 0;
+            long bytes = 0;
+            long parseStart = System.nanoTime();
+            while (it.hasNext()) {
+                parsed++;
+                long recordBytes = bindRecord(ps, binders, positions, it.next(), tracker, rejects, lineOffset);
+                if (recordBytes >= 0) {
+                    bytes += recordBytes;
+                    ps.addBatch();
+                    ps.clearParameters();
+                    rows++;
+                }
+                if (rows > 0 && (rows >= batchController.batchSize() || !it.hasNext())) {
+                    tracker.checkCancelled();
+                    long start = System.nanoTime();
+                    tracker.recordsParsed(parsed, start - parseStart);
+                    ps.executeBatch();
+                    batchController.batchExecuted(rows, bytes, System.nanoTime() - start);
+                    count += rows;
+                    uncommitted += rows;
+                    parsed = 0;
+                    rows = 0;
+                    bytes = 0;
+                    if (commit && batchController.isCommitDue(uncommitted)) {
+                        commit(connection, tracker);
+                        uncommitted = 0;
+                    }
+                    parseStart = System.nanoTime();
+                }
+            }
+            if (commit) {
+                commit(connection, tracker);
+            }
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            if (commit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (commit) {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void commit(Connection connection, CsvLoadTracker tracker) throws SQLException {
+        long start = System.nanoTime();
+        connection.commit();
+        long nanos = System.nanoTime() - start;
+        tracker.committed(nanos);
+        LOGGER.debug("execute commit time {}", TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static CsvLoadPipeline.BoundChunk bindChunk(PreparedStatement ps, List<CsvRecord> chunk,
+            CsvFieldBinder[] binders, int[] positions, CsvLoadTracker tracker, CsvRejectWriter rejects,
+            long lineOffset) throws SQLException {
+        int rows = 0;
+        long bytes = 0;
+        for (CsvRecord r : chunk) {
+            long recordBytes = bindRecord(ps, binders, positions, r, tracker, rejects, lineOffset);
+            if (recordBytes >= 0) {
+                bytes += recordBytes;
+                ps.addBatch();
+                ps.clearParameters();
+                rows++;
+            }
+        }
+        return new CsvLoadPipeline.BoundChunk(rows, bytes);
+    }
+
+    /**
+     * @return the parameterized insert statement for all columns of the request,
+     *         the partition column gets the partition key as literal
+     */
+    static String getInsertSql(SqlStatementGenerator sqlStatementGenerator, CsvLoadRequest request) {
+        List<ColumnReference> columns = new ArrayList<>(
+                request.columns().stream().map(ColumnDefinition::column).toList());
+        List<String> values = new ArrayList<>(request.columns().stream().map(c -> "?").toList());
+        request.partition().ifPresent(p -> {
+            columns.add(p.column());
+            values.add(p.literal());
+        });
+        InsertSqlStatement insertSqlStatement = new InsertSqlStatementR(request.table(), columns, values);
+        return sqlStatementGenerator.getSqlOfStatement(insertSqlStatement);
+    }
+
+    /**
+     * Resolves the position of every column in the csv header once, so records
+     * could be accessed by index.
+     */
+    static int[] getColumnPositions(List<String> header, List<ColumnDefinition> columns) {
+        int[] positions = new int[columns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = header.indexOf(columns.get(i).column().name());
+        }
+        return positions;
+    }
+
+    private static String getField(CsvRecord r, int position) {
+        if (position < 0 || position >= r.getFieldCount()) {
+            return null;
+        }
+        return r.getField(position);
+    }
+
+    /**
+     * Binds the record. In tolerant mode a record that could not be converted is
+     * written to the rejects file instead.
+     *
+     * @return count of csv bytes of the bound fields, separators included, -1 if
+     *         the record was rejected
+     */
+    private static long bindRecord(PreparedStatement ps, CsvFieldBinder[] binders, int[] positions, CsvRecord r,
+            CsvLoadTracker tracker, CsvRejectWriter rejects, long lineOffset) throws SQLException {
+        try {
+            long bytes = 0;
+            for (int i = 0; i < binders.length; i++) {
+                String field = getField(r, positions[i]);
+                binders[i].bind(ps, field);
+                bytes += CsvLoadPipeline.fieldBytes(field);
+            }
+            return bytes;
+        } catch (SQLException | IllegalArgumentException e) {
+            if (rejects == null) {
+                tracker.parseError();
+                throw new CsvDataLoaderException(EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT, e);
+            }
+            ps.clearParameters();
+            rejects.reject(lineOffset + r.getStartingLineNumber(), r.getFields(), e);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+/**
+ * Bounds the count of connections the loader holds at the same time. Every
+ * {@link Connection} is handed out as a {@link Lease} that gives its permit back
+ * when it is closed.
+ */
+final class ConnectionGate {
+
+    private final DataSource dataSource;
+    private final Semaphore permits;
+
+    ConnectionGate(DataSource dataSource, int maxConnections) {
+        this.dataSource = dataSource;
+        this.permits = new Semaphore(Math.max(1, maxConnections), true);
+    }
+
+    /**
+     * Waits for a free permit and opens a connection.
+     */
+    Lease lease() throws SQLException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        return open();
+    }
+
+    /**
+     * Opens a connection only if a permit is free right now.
+     */
+    Optional<Lease> tryLease() throws SQLException {
+        if (!permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(open());
+    }
+
+    private Lease open() throws SQLException {
+        try {
+            return new Lease(dataSource.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    final class Lease implements AutoCloseable {
+
+        private final Connection connection;
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection connection() {
+            return connection;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                connection.close();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
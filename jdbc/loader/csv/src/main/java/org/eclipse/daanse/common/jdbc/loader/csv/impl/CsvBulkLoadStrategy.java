@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Strategy that moves the data rows of a csv file into a table. The
+ * {@link CsvDataLoader} selects the strategies according the
+ * {@link org.eclipse.daanse.common.jdbc.db.api.meta.DatabaseInfo} of the
+ * database and uses the first one that is able to load a request.
+ */
+interface CsvBulkLoadStrategy {
+
+    /**
+     * @return the name of the strategy in the
+     *         {@link org.eclipse.daanse.common.jdbc.loader.csv.api.CsvFileLoadMetrics}
+     */
+    String name();
+
+    /**
+     * Checks if this strategy is able to load the request using the given
+     * {@link Connection}.
+     *
+     * @param connection
+     * @param request
+     * @return true if {@link #load(Connection, CsvLoadRequest)} could be used
+     * @throws SQLException
+     */
+    boolean canLoad(Connection connection, CsvLoadRequest request) throws SQLException;
+
+    /**
+     * Loads all data rows of the request into the table of the request.
+     *
+     * @param connection
+     * @param request
+     * @return count of loaded rows, -1 if unknown
+     * @throws SQLException
+     */
+    long load(Connection connection, CsvLoadRequest request) throws SQLException;
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression of a csv file, detected by the file extension.
+ */
+enum CsvCompression {
+
+    NONE(".csv") {
+        @Override
+        InputStream decompress(InputStream in) {
+            return in;
+        }
+    },
+
+    GZIP(".csv" + CsvCompression.GZIP_EXTENSION) {
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    };
+
+    /**
+     * Pattern for the {@link CsvDataLoader}, matches the extensions of all
+     * compressions but not the files of rejected rows.
+     */
+    static final String PATTERN = ".*(?<!\\.rejects)\\.csv(\\.gz)?";
+
+    static final String GZIP_EXTENSION = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    CsvCompression(String extension) {
+        this.extension = extension;
+    }
+
+    abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * @return the file name without the extension of the compression
+     */
+    String baseName(String fileName) {
+        return fileName.substring(0, fileName.length() - extension.length());
+    }
+
+    static Optional<CsvCompression> of(Path path) {
+        String fileName = path.getFileName().toString();
+        if (fileName.endsWith(CsvRejectWriter.REJECTS_EXTENSION)) {
+            return Optional.empty();
+        }
+        if (fileName.endsWith(GZIP.extension)) {
+            return Optional.of(GZIP);
+        }
+        if (fileName.endsWith(NONE.extension)) {
+            return Optional.of(NONE);
+        }
+        return Optional.empty();
+    }
+}
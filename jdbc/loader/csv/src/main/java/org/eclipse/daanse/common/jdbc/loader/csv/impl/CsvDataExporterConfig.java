@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition()
+public @interface CsvDataExporterConfig {
+
+    /**
+     * @return Null Value
+     */
+    @AttributeDefinition(description = "nullValue")
+    String nullValue() default "NULL";
+
+    /**
+     * @return Quote
+     */
+    @AttributeDefinition(description = "quoteCharacter")
+    char quoteCharacter() default '"';
+
+    /**
+     * @return Delimiter
+     */
+    @AttributeDefinition(description = "fieldSeparator")
+    char fieldSeparator() default ',';
+
+    /**
+     * @return Types Row. Write the JDBC types of the columns in the row after
+     *         the header.
+     */
+    @AttributeDefinition(description = "typesRow", defaultValue = "true")
+    boolean typesRow() default true;
+
+    /**
+     * @return Fetch Size. Count of rows the driver fetches from the database at
+     *         once.
+     */
+    @AttributeDefinition(description = "fetchSize", defaultValue = "10000")
+    int fetchSize() default 10000;
+
+    /**
+     * @return Write Buffer Size. Size in bytes of the direct buffer that is
+     *         written to the file at once.
+     */
+    @AttributeDefinition(description = "writeBufferSize", defaultValue = "4194304")
+    int writeBufferSize() default 4 * 1024 * 1024;
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.MetaInfoCache;
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.SelectSqlStatementR;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.Constants;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvDataExporter;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ServiceScope;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.siegmar.fastcsv.writer.CsvWriter;
+
+/**
+ * Streams a table with a forward only {@link ResultSet} into a csv file. The
+ * records are written by a {@link CsvWriter} through a direct buffer on a
+ * {@link FileChannel} into a temporary file, that replaces the target when the
+ * export is complete, so a watching loader never sees a half written file.
+ */
+@Designate(ocd = CsvDataExporterConfig.class, factory = true)
+@Component(scope = ServiceScope.SINGLETON, service = CsvDataExporter.class, configurationPid = Constants.PID_EXPORTER)
+public class CsvDataExporterImpl implements CsvDataExporter {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvDataExporterImpl.class);
+
+    @Reference
+    DataSource dataSource;
+
+    @Reference
+    DatabaseService databaseService;
+
+    @Reference
+    MetaInfoCache metaInfoCache;
+
+    private CsvDataExporterConfig config;
+    private SqlStatementGenerator sqlStatementGenerator;
+
+    @Activate
+    public void activate(CsvDataExporterConfig config) throws SQLException {
+        this.config = config;
+        sqlStatementGenerator = databaseService.createSqlStatementGenerator(metaInfoCache.getMetaInfo(dataSource));
+    }
+
+    @Override
+    public long export(TableReference table, Path target) throws IOException, SQLException {
+        String sql = sqlStatementGenerator
+                .getSqlOfStatement(new SelectSqlStatementR(table, List.of(), List.of(), List.of()));
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_EXTENSION);
+        long start = System.currentTimeMillis();
+        long rows;
+
+        try (Connection connection = dataSource.getConnection()) {
+            // some drivers only stream the rows inside of a transaction
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(config.fetchSize());
+                try (ResultSet rs = ps.executeQuery(); CsvWriter writer = openWriter(temp)) {
+                    rows = write(rs, writer);
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("exported {} rows of {} in {}", rows, table.name(), (System.currentTimeMillis() - start));
+        return rows;
+    }
+
+    private CsvWriter openWriter(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ChannelOutputStream out = new ChannelOutputStream(channel, config.writeBufferSize());
+        return CsvWriter.builder().fieldSeparator(config.fieldSeparator()).quoteCharacter(config.quoteCharacter())
+                .build(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private long write(ResultSet rs, CsvWriter writer) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        List<String> header = new ArrayList<>(count);
+        List<String> types = new ArrayList<>(count);
+        FieldReader[] readers = new FieldReader[count];
+        for (int i = 1; i <= count; i++) {
+            JDBCType type = jdbcType(metaData.getColumnType(i));
+            header.add(metaData.getColumnLabel(i));
+            types.add(typeOf(type, metaData.getPrecision(i), metaData.getScale(i)));
+            readers[i - 1] = FieldReader.of(type, i);
+        }
+        writer.writeRecord(header);
+        if (config.typesRow()) {
+            writer.writeRecord(types);
+        }
+
+        String[] fields = new String[count];
+        List<String> record = Arrays.asList(fields);
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < count; i++) {
+                String field = readers[i].read(rs);
+                fields[i] = rs.wasNull() ? config.nullValue() : field;
+            }
+            writer.writeRecord(record);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static JDBCType jdbcType(int sqlType) {
+        try {
+            return JDBCType.valueOf(sqlType);
+        } catch (IllegalArgumentException e) {
+            return JDBCType.VARCHAR;
+        }
+    }
+
+    /**
+     * @return the type in the format of the types row, see
+     *         {@link CsvDataLoader}
+     */
+    static String typeOf(JDBCType type, int precision, int scale) {
+        return switch (type) {
+        case CHAR, VARCHAR, NCHAR, NVARCHAR -> precision > 0 ? type.getName() + "(" + precision + ")" : type.getName();
+        case DECIMAL, NUMERIC -> precision > 0 ? type.getName() + "(" + precision + "." + scale + ")" : type.getName();
+        default -> type.getName();
+        };
+    }
+
+    /**
+     * Reads one column as text in the format the {@link CsvFieldBinder} of the
+     * type parses.
+     */
+    @FunctionalInterface
+    interface FieldReader {
+
+        String read(ResultSet rs) throws SQLException;
+
+        static FieldReader of(JDBCType type, int index) {
+            return switch (type) {
+            case BOOLEAN, BIT -> rs -> String.valueOf(rs.getBoolean(index));
+            case DATE -> rs -> {
+                Date date = rs.getDate(index);
+                return date == null ? null : date.toString();
+            };
+            case TIME -> rs -> {
+                Time time = rs.getTime(index);
+                return time == null ? null : time.toString();
+            };
+            case TIMESTAMP -> rs -> {
+                Timestamp timestamp = rs.getTimestamp(index);
+                return timestamp == null ? null : timestamp.toString();
+            };
+            default -> rs -> rs.getString(index);
+            };
+        }
+    }
+}
@@ -14,21 +14,43 @@
 package org.eclipse.daanse.common.jdbc.loader.csv.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent.Kind;
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.JDBCType;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Time;
-import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
@@ -36,14 +58,14 @@ import org.eclipse.daanse.common.io.fs.watcher.api.EventKind;
 import org.eclipse.daanse.common.io.fs.watcher.api.FileSystemWatcherListener;
 import org.eclipse.daanse.common.io.fs.watcher.api.propertytypes.FileSystemWatcherListenerProperties;
 import org.eclipse.daanse.common.jdbc.db.api.DatabaseService;
+import org.eclipse.daanse.common.jdbc.db.api.MetaInfoCache;
 import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.meta.DatabaseInfo;
 import org.eclipse.daanse.common.jdbc.db.api.meta.MetaInfo;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
 import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnMetaData;
-import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.SchemaReference;
 import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
-import org.eclipse.daanse.common.jdbc.db.api.sql.statement.InsertSqlStatement;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
@@ -51,9 +73,12 @@ import org.eclipse.daanse.common.jdbc.db.record.sql.element.SchemaReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateContainerSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateSchemaSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DeleteSqlStatementR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DropContainerSqlStatementR;
-import org.eclipse.daanse.common.jdbc.db.record.sql.statement.InsertSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.RenameContainerSqlStatementR;
 import org.eclipse.daanse.common.jdbc.loader.csv.api.Constants;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvFileLoadMetrics;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvLoadMetrics;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -65,12 +90,13 @@ import org.slf4j.LoggerFactory;
 
 import de.siegmar.fastcsv.reader.CloseableIterator;
 import de.siegmar.fastcsv.reader.CsvReader;
-import de.siegmar.fastcsv.reader.NamedCsvRecord;
+import de.siegmar.fastcsv.reader.CsvRecord;
 
 @Designate(ocd = CsvDataLoaderConfig.class, factory = true)
-@FileSystemWatcherListenerProperties(kinds = EventKind.ENTRY_MODIFY, pattern = ".*.csv", recursive = true)
-@Component(scope = ServiceScope.SINGLETON, service = FileSystemWatcherListener.class, configurationPid = Constants.PID_LOADER_FILEWATCHER)
-public class CsvDataLoader implements FileSystemWatcherListener {
+@FileSystemWatcherListenerProperties(kinds = EventKind.ENTRY_MODIFY, pattern = CsvCompression.PATTERN, recursive = true)
+@Component(scope = ServiceScope.SINGLETON, service = { FileSystemWatcherListener.class,
+        CsvLoadMetrics.class }, configurationPid = Constants.PID_LOADER_FILEWATCHER)
+public class CsvDataLoader implements FileSystemWatcherListener, CsvLoadMetrics {
 
     private static final String EXCEPTION_WHILE_WRITING_DATA = "Exception while writing Data";
 
@@ -78,18 +104,42 @@ public class CsvDataLoader implements FileSystemWatcherListener {
 
     private static final String EXCEPTION_DATABASE_CONNECTION_ERROR = "Database connection error";
 
-    private static final String EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT = "Exception while setting value to PreparedStatement";
+    private static final String RETIRED_TABLE_SUFFIX = "__retired";
+
+    static final String COLUMN_NAME_PREFIX = "COLUMN_";
+
+    private static final int DECOMPRESSION_CHUNK_SIZE = 256 * 1024;
+
+    private static final int PARTITION_KEY_SIZE = 255;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final Set<JDBCType> DECIMAL_TYPES = Set.of(JDBCType.DECIMAL, JDBCType.NUMERIC);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CsvDataLoader.class);
 
     @Reference
-    private DataSource dataSource;
+    DataSource dataSource;
 
     @Reference
     DatabaseService databaseService;
 
+    @Reference
+    MetaInfoCache metaInfoCache;
+
     private CsvDataLoaderConfig config;
+    private Charset charset;
     private SqlStatementGenerator sqlStatementGenerator;
+    private List<CsvBulkLoadStrategy> bulkLoadStrategies;
+    private CsvLoadStateRepository loadStateRepository;
+    private CsvIndexBuilder indexBuilder;
+    private CsvFileFingerprintRepository fingerprintRepository;
+    private CsvReloadScheduler reloadScheduler;
+    private Pattern partitionPattern;
+    private final Object partitionTableLock = new Object();
+    private ConnectionGate connectionGate;
+    private ExecutorService loadExecutor;
+    private final Map<String, CsvLoadTracker> loadTrackers = new ConcurrentHashMap<>();
 
     private Path basePath;
     MetaInfo metaInfo;
@@ -97,34 +147,167 @@ public class CsvDataLoader implements FileSystemWatcherListener {
     @Activate
     public void activate(CsvDataLoaderConfig config) throws SQLException {
         this.config = config;
-        metaInfo = databaseService.createMetaInfo(dataSource);
+        charset = Charset.forName(config.encoding());
+        partitionPattern = CsvPartition.compile(config.partitionPattern());
+        connectionGate = new ConnectionGate(dataSource, config.maxConnections());
+        loadExecutor = Executors.newFixedThreadPool(Math.max(1, config.loaderThreads()));
+        metaInfo = metaInfoCache.getMetaInfo(dataSource);
         sqlStatementGenerator = databaseService.createSqlStatementGenerator(metaInfo);
+        bulkLoadStrategies = getBulkLoadStrategies(metaInfo.databaseInfo());
+        indexBuilder = new CsvIndexBuilder(connectionGate, sqlStatementGenerator, config.indexThreads());
+        if (config.reloadQuietPeriod() > 0) {
+            reloadScheduler = new CsvReloadScheduler(config.reloadQuietPeriod(), loadExecutor, this::cancelLoad);
+        }
+        if (config.incrementalLoad()) {
+            loadStateRepository = new CsvLoadStateRepository(sqlStatementGenerator,
+                    new TableReferenceR(config.loadStateTable()));
+            try (ConnectionGate.Lease lease = connectionGate.lease()) {
+                loadStateRepository.createTable(lease.connection());
+            }
+        }
+        if (config.skipUnchangedFiles()) {
+            fingerprintRepository = new CsvFileFingerprintRepository(sqlStatementGenerator,
+                    new TableReferenceR(config.fingerprintTable()));
+            try (ConnectionGate.Lease lease = connectionGate.lease()) {
+                fingerprintRepository.createTable(lease.connection());
+            }
+        }
     }
 
     @Deactivate
     public void deactivate() {
+        if (reloadScheduler != null) {
+            reloadScheduler.close();
+            reloadScheduler = null;
+        }
+        // running loads stop at their next batch, the fields they use stay set
+        // until they are done
+        loadTrackers.values().forEach(CsvLoadTracker::cancel);
+        loadExecutor.shutdownNow();
+        try {
+            if (!loadExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Loads did not stop within {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loadExecutor = null;
+        connectionGate = null;
         config = null;
         sqlStatementGenerator = null;
+        bulkLoadStrategies = null;
+        loadStateRepository = null;
+        indexBuilder = null;
+        fingerprintRepository = null;
     }
 
-    private void checkPathAndLoadCsv(Path path) {
+    /**
+     * Selects the {@link CsvBulkLoadStrategy}s for the database. The batch insert
+     * is always the last one, as it is able to load every file.
+     */
+    private List<CsvBulkLoadStrategy> getBulkLoadStrategies(DatabaseInfo databaseInfo) {
+        List<CsvBulkLoadStrategy> strategies = new ArrayList<>();
+        String productName = databaseInfo.databaseProductName();
+        if (config.bulkLoad() && H2CsvReadBulkLoadStrategy.DATABASE_PRODUCT_NAME.equalsIgnoreCase(productName)) {
+            strategies.add(new H2CsvReadBulkLoadStrategy(config, metaInfo.identifierInfo().quoteString()));
+        }
+        if (config.memoryMappedRead()) {
+            strategies.add(new MappedCsvBulkLoadStrategy(connectionGate, config, sqlStatementGenerator));
+        }
+        strategies.add(new BatchInsertCsvBulkLoadStrategy(connectionGate, config, sqlStatementGenerator));
+        LOGGER.debug("Bulk load strategies for {} - {}", productName, strategies);
+        return List.copyOf(strategies);
+    }
+
+    /**
+     * @param skipUnchanged true to skip the file if it is loaded already and its
+     *                      {@link CsvFileFingerprint} did not change
+     */
+    private void checkPathAndLoadCsv(Path path, boolean skipUnchanged) {
 
         if (Files.isDirectory(path)) {
             return;
         }
-        if (!path.toString().endsWith(".csv")) {
+        Optional<CsvCompression> compression = CsvCompression.of(path);
+        if (compression.isEmpty()) {
             return;
         }
 
-        try (Connection connection = dataSource.getConnection()) {
-            loadTable(connection, path);
+        // the size of a compressed file tells nothing about the bytes to load
+        CsvLoadTracker tracker = new CsvLoadTracker(getLoadStateKey(path),
+                compression.get() == CsvCompression.NONE ? sizeOf(path) : -1);
+        loadTrackers.put(tracker.file(), tracker);
+        try (ConnectionGate.Lease lease = connectionGate.lease()) {
+            CsvFileRange.Prefix content = null;
+            long lastModified = 0;
+            if (fingerprintRepository != null && Files.isRegularFile(path)) {
+                Optional<CsvFileFingerprint> loaded = skipUnchanged
+                        ? fingerprintRepository.read(lease.connection(), tracker.file())
+                        : Optional.empty();
+                // the checksum is only worth reading if the size did not change
+                if (loaded.isPresent() && loaded.get().size() == sizeOf(path)
+                        && CsvFileFingerprint.of(tracker.file(), path).hasSameContent(loaded.get())
+                        && tableExists(lease.connection(), getTable(path))) {
+                    LOGGER.debug("Skip unchanged file {}", tracker.file());
+                    loadTrackers.remove(tracker.file(), tracker);
+                    return;
+                }
+                // the loader checksums the bytes while it reads them
+                lastModified = CsvFileFingerprint.lastModified(path);
+                content = CsvFileRange.prefix();
+            }
+            loadTable(lease.connection(), path, tracker, content);
+            if (content != null) {
+                Optional<CsvFileFingerprint> fingerprint = CsvFileFingerprint.of(tracker.file(), path, lastModified,
+                        content);
+                if (fingerprint.isPresent()) {
+                    fingerprintRepository.write(lease.connection(), fingerprint.get());
+                } else {
+                    fingerprintRepository.delete(lease.connection(), tracker.file());
+                }
+            }
+            tracker.finish();
         } catch (SQLException e) {
+            tracker.fail(e);
             throw new CsvDataLoaderException(EXCEPTION_DATABASE_CONNECTION_ERROR, e);
+        } catch (CsvLoadCancelledException e) {
+            LOGGER.debug(e.getMessage());
+            tracker.cancelled();
+        } catch (RuntimeException e) {
+            tracker.fail(e);
+            throw e;
+        }
+
+    }
+
+    private void cancelLoad(Path path) {
+        CsvLoadTracker tracker = loadTrackers.get(getLoadStateKey(path));
+        if (tracker != null) {
+            tracker.cancel();
         }
+    }
+
+    private Optional<CsvPartition> getPartition(Path path) {
+        return CsvPartition.of(partitionPattern, new ColumnReferenceR(config.partitionColumn()),
+                getFileNameWithoutExtension(path.getFileName().toString()));
+    }
 
+    /**
+     * @return the table of the file, the table of its partition if the file
+     *         matches the partition pattern
+     */
+    private TableReference getTable(Path path) {
+        String tableName = getPartition(path).map(CsvPartition::table)
+                .orElseGet(() -> getFileNameWithoutExtension(path.getFileName().toString()));
+        return new TableReferenceR(getSchemaFromPath(path), tableName, "TABLE");
     }
 
-    private void loadTable(Connection connection, Path path) throws SQLException {
+    /**
+     * @param content collects the checksum of the bytes read from the file, null
+     *                if it is not needed
+     */
+    private void loadTable(Connection connection, Path path, CsvLoadTracker tracker, CsvFileRange.Prefix content)
+            throws SQLException {
         String fileName = getFileNameWithoutExtension(path.getFileName().toString());
         LOGGER.debug("Load table {}", fileName);
         Optional<SchemaReference> schema = getSchemaFromPath(path);
@@ -145,7 +328,30 @@ public class CsvDataLoader implements FileSystemWatcherListener {
             }
         });
 
-        TableReference table = new TableReferenceR(schema, fileName, "TABLE");
+        TableReference table = getTable(path);
+        Optional<CsvPartition> partition = getPartition(path);
+        if (partition.isPresent()) {
+            if (path.toFile().exists()) {
+                loadPartition(connection, path, table, partition.get(), tracker, content);
+            } else if (tableExists(connection, table)) {
+                deletePartition(connection, table, partition.get());
+            }
+            return;
+        }
+        // offsets of compressed files are not usable for an incremental load,
+        // records are found by their bytes
+        if (loadStateRepository != null && CsvCompression.of(path).orElse(null) == CsvCompression.NONE
+                && CsvFileRange.isAsciiCompatible(charset)) {
+            if (path.toFile().exists()) {
+                loadTableIncremental(connection, path, table, tracker, content);
+                return;
+            }
+            loadStateRepository.delete(connection, getLoadStateKey(path));
+        }
+        if (config.shadowTableLoad() && path.toFile().exists()) {
+            loadTableShadow(connection, path, table, tracker, content);
+            return;
+        }
         dropTable(connection, table);
 
         if (!path.toFile().exists()) {
@@ -154,43 +360,342 @@ public class CsvDataLoader implements FileSystemWatcherListener {
             return;
         }
 
-        CsvReader.CsvReaderBuilder builder = CsvReader.builder().fieldSeparator(config.fieldSeparator())
-                .quoteCharacter(config.quoteCharacter()).skipEmptyLines(config.skipEmptyLines())
-                .commentCharacter(config.commentCharacter())
-                .ignoreDifferentFieldCount(config.ignoreDifferentFieldCount());
+        CsvReader.CsvReaderBuilder builder = getCsvReaderBuilder();
 
-        try (CloseableIterator<NamedCsvRecord> it = builder.ofNamedCsvRecord(path).iterator()) {
-            if (!it.hasNext()) {
-                throw new IllegalStateException("No header found");
+        try (CloseableIterator<CsvRecord> it = openCsv(builder, path, content)) {
+            CsvHeader header = readHeader(it, path);
+            if (header.records().hasNext()) {
+                createTable(connection, header.columns(), table);
+                insertTable(connection, new CsvLoadRequest(path, table, header.fields(), header.columns(),
+                        header.records(), true, tracker));
+                indexBuilder.build(connection, table, table.name(), header.indexes());
             }
-            NamedCsvRecord types = it.next();
-            List<ColumnDefinition> headersTypeList = getHeadersTypeList(types);
-            if (it.hasNext()) {
-                createTable(connection, headersTypeList, table);
-                insertTable(connection, it, headersTypeList, table);
+
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while Loading csv", e);
+        }
+    }
+
+    /**
+     * Replaces the partition of the file in the table it shares with the other
+     * partitions. A missing table is created with the partition column. The
+     * rows of the partition are deleted and inserted in one transaction on the
+     * one connection, so the other partitions are not touched and readers never
+     * see the partition empty or half loaded. Partition files are always
+     * replaced as a whole, incremental and shadow table loads do not apply to
+     * them.
+     */
+    private void loadPartition(Connection connection, Path path, TableReference table, CsvPartition partition,
+            CsvLoadTracker tracker, CsvFileRange.Prefix content) throws SQLException {
+        try (CloseableIterator<CsvRecord> it = openCsv(getCsvReaderBuilder(), path, content)) {
+            CsvHeader header = readHeader(it, path);
+            List<ColumnDefinition> columns = new ArrayList<>(header.columns());
+            columns.add(new ColumnDefinitionR(partition.column(), new ColumnMetaDataR(JDBCType.VARCHAR,
+                    Optional.of(PARTITION_KEY_SIZE), Optional.empty(), Optional.empty())));
+            boolean created = false;
+            synchronized (partitionTableLock) {
+                if (!tableExists(connection, table)) {
+                    createTable(connection, columns, table);
+                    created = true;
+                }
             }
 
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                deletePartition(connection, table, partition);
+                insertTable(connection, new CsvLoadRequest(path, table, header.fields(), header.columns(),
+                        header.records(), true, tracker, Optional.of(partition), false, 0, false));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            if (created) {
+                indexBuilder.build(connection, table, table.name(), header.indexes());
+            }
         } catch (IOException e) {
             throw new CsvDataLoaderException("Exception while Loading csv", e);
         }
     }
 
-    private void insertTable(Connection connection, CloseableIterator<NamedCsvRecord> it,
-            List<ColumnDefinition> headersTypeList, TableReference table) throws SQLException {
+    private void deletePartition(Connection connection, TableReference table, CsvPartition partition)
+            throws SQLException {
+        LOGGER.debug("Delete partition {} of table {}", partition.value(), table.name());
+        String sql = sqlStatementGenerator
+                .getSqlOfStatement(new DeleteSqlStatementR(table, List.of(partition.column()), List.of("?")));
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, partition.value());
+            ps.executeUpdate();
+        }
+    }
 
-        List<ColumnReference> columns = headersTypeList.stream().map(ColumnDefinition::column).toList();
-        List<String> values = headersTypeList.stream().map(c -> "?").toList();
-        InsertSqlStatement insertSqlStatement = new InsertSqlStatementR(table, columns, values);
+    /**
+     * Loads the file into a shadow table while the table stays readable and
+     * swaps the shadow table in when it is complete.
+     */
+    private void loadTableShadow(Connection connection, Path path, TableReference table, CsvLoadTracker tracker,
+            CsvFileRange.Prefix content) throws SQLException {
+        TableReference shadow = new TableReferenceR(table.schema(), table.name() + config.shadowTableSuffix(),
+                table.type());
+        dropTable(connection, shadow);
+
+        try (CloseableIterator<CsvRecord> it = openCsv(getCsvReaderBuilder(), path, content)) {
+            CsvHeader header = readHeader(it, path);
+            if (!header.records().hasNext()) {
+                dropTable(connection, table);
+                return;
+            }
+            createTable(connection, header.columns(), shadow);
+            insertTable(connection, new CsvLoadRequest(path, shadow, header.fields(), header.columns(),
+                    header.records(), true, tracker));
+            // the indexes of the table are still there, so the names of the new
+            // ones get a suffix of the load time
+            indexBuilder.build(connection, shadow,
+                    table.name() + "_" + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX),
+                    header.indexes());
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while Loading csv", e);
+        }
+        swapTable(connection, shadow, table);
+    }
 
-        String sql = sqlStatementGenerator.getSqlOfStatement(insertSqlStatement);
+    /**
+     * Renames the table out of the way and the shadow table to the name of the
+     * table. The swap is not atomic: most databases commit each rename on its
+     * own, so readers may miss the table for the short gap between the two
+     * renames. If the second rename fails the old table is renamed back, so the
+     * table keeps its old content and the shadow table stays behind.
+     */
+    private void swapTable(Connection connection, TableReference shadow, TableReference table) throws SQLException {
+        TableReference retired = new TableReferenceR(table.schema(), table.name() + RETIRED_TABLE_SUFFIX,
+                table.type());
+        dropTable(connection, retired);
+
+        boolean autoCommit = connection.getAutoCommit();
+        boolean renamed = false;
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sqlStatementGenerator
+                    .getSqlOfStatement(new RenameContainerSqlStatementR(table, retired.name(), true)));
+            renamed = true;
+            stmt.execute(sqlStatementGenerator
+                    .getSqlOfStatement(new RenameContainerSqlStatementR(shadow, table.name(), false)));
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            if (renamed) {
+                restoreTable(connection, retired, table, e);
+            }
+            throw new CsvDataLoaderException("Exception while swap table", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        dropTable(connection, retired);
+    }
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            batchExecute(connection, ps, it, headersTypeList);
+    /**
+     * Renames the retired table back to the name of the table after a failed
+     * swap. The rollback does not undo the first rename on databases that
+     * commit DDL implicitly. A failure is added to the cause of the swap.
+     */
+    private void restoreTable(Connection connection, TableReference retired, TableReference table,
+            SQLException cause) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sqlStatementGenerator
+                    .getSqlOfStatement(new RenameContainerSqlStatementR(retired, table.name(), true)));
+            connection.commit();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Loads only the records that were appended since the last load. The
+     * {@link CsvLoadState} of the file remembers the position behind the last
+     * loaded record and a checksum of all bytes before. The table is reloaded
+     * completely if the file shrank, the checksum of the known prefix changed or
+     * the table is missing. Without a types row the types are inferred from the
+     * current file, the table is reloaded as well if they no longer fit the
+     * columns of the table.
+     *
+     * The appended rows and the new state are committed in one transaction, so a
+     * failed append is neither half loaded nor loaded twice. A full load deletes
+     * the state first, a full load that breaks off is repeated by the next load.
+     */
+    private void loadTableIncremental(Connection connection, Path path, TableReference table,
+            CsvLoadTracker tracker, CsvFileRange.Prefix content) throws SQLException {
+        String file = getLoadStateKey(path);
+        CsvReader.CsvReaderBuilder builder = getCsvReaderBuilder();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // a last line without line separator is still written
+            long end = CsvFileRange.recordEnd(channel);
+            Optional<CsvLoadState> oState = loadStateRepository.read(connection, file);
+
+            // the readers extend the prefix, so a full load reads the file once
+            CsvFileRange.Prefix prefix = content != null ? content : CsvFileRange.prefix();
+            boolean append = false;
+            if (oState.isPresent() && oState.get().byteOffset() <= end && tableExists(connection, table)) {
+                prefix.extend(channel, oState.get().byteOffset());
+                append = oState.get().prefixChecksum() == prefix.checksum();
+            }
+            // the line numbers of the tail records start at its first line
+            long tailLineOffset = prefix.lineCount();
+
+            if (append && oState.get().byteOffset() == end) {
+                LOGGER.debug("Table {} is up to date", table.name());
+                return;
+            }
+
+            try (CloseableIterator<CsvRecord> it = builder
+                    .ofCsvRecord(newReader(channel, 0, end, prefix)).iterator()) {
+                CsvHeader header = readHeader(it, path);
+                if (append && !config.typesRow() && !fitsTable(connection, table, header.columns())) {
+                    LOGGER.debug("Inferred types of table {} changed", table.name());
+                    append = false;
+                }
+                if (!append) {
+                    LOGGER.debug("Full load of table {}", table.name());
+                    loadStateRepository.delete(connection, file);
+                    dropTable(connection, table);
+                }
+
+                long lineCount = append ? oState.get().lineCount() : 0;
+                tracker.totalBytes(append ? end - oState.get().byteOffset() : end);
+                if (append) {
+                    LOGGER.debug("Append to table {} from byte {}", table.name(), oState.get().byteOffset());
+                    boolean autoCommit = connection.getAutoCommit();
+                    connection.setAutoCommit(false);
+                    try (CloseableIterator<CsvRecord> tail = builder
+                            .ofCsvRecord(newReader(channel, oState.get().byteOffset(), end, prefix)).iterator()) {
+                        lineCount += insertTable(connection,
+                                new CsvLoadRequest(path, table, header.fields(), header.columns(), tail, false,
+                                        tracker, Optional.empty(), false, tailLineOffset, true));
+                        prefix.extend(channel, end);
+                        loadStateRepository.write(connection,
+                                new CsvLoadState(file, end, lineCount, prefix.checksum()));
+                        connection.commit();
+                    } catch (SQLException | IOException | RuntimeException e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(autoCommit);
+                    }
+                    return;
+                }
+                createTable(connection, header.columns(), table);
+                lineCount += insertTable(connection, new CsvLoadRequest(path, table, header.fields(),
+                        header.columns(), header.records(), false, tracker));
+                indexBuilder.build(connection, table, table.name(), header.indexes());
+                prefix.extend(channel, end);
+                loadStateRepository.write(connection, new CsvLoadState(file, end, lineCount, prefix.checksum()));
+            }
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while Loading csv", e);
+        }
+    }
+
+    /**
+     * Checks that the table has a column of the same type for each inferred
+     * column, large enough for the inferred size, integer and fraction digits.
+     */
+    private boolean fitsTable(Connection connection, TableReference table, List<ColumnDefinition> columns)
+            throws SQLException {
+        Map<String, ColumnMetaData> tableColumns = new HashMap<>();
+        for (ColumnDefinition column : databaseService.getColumnDefinitions(connection.getMetaData(), table)) {
+            tableColumns.put(column.column().name(), column.columnType());
+        }
+        for (ColumnDefinition column : columns) {
+            ColumnMetaData inferred = column.columnType();
+            ColumnMetaData existing = tableColumns.get(column.column().name());
+            if (existing == null || !sameType(inferred.dataType(), existing.dataType())) {
+                return false;
+            }
+            int size = inferred.columnSize().orElse(0);
+            int digits = inferred.decimalDigits().orElse(0);
+            int tableSize = existing.columnSize().orElse(Integer.MAX_VALUE);
+            int tableDigits = existing.decimalDigits().orElse(digits);
+            if (size > tableSize || digits > tableDigits || size - digits > tableSize - tableDigits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameType(JDBCType inferred, JDBCType existing) {
+        // databases report DECIMAL columns as NUMERIC and the other way round
+        return inferred == existing || DECIMAL_TYPES.contains(inferred) && DECIMAL_TYPES.contains(existing);
+    }
+
+    private long insertTable(Connection connection, CsvLoadRequest request) {
+        try {
+            for (CsvBulkLoadStrategy strategy : bulkLoadStrategies) {
+                if (strategy.canLoad(connection, request)) {
+                    LOGGER.debug("Load table {} with {}", request.table().name(), strategy.name());
+                    request.tracker().strategy(strategy.name());
+                    long rows = strategy.load(connection, request);
+                    request.tracker().loaded(rows);
+                    return rows;
+                }
+            }
+            return 0;
         } catch (SQLException e) {
             throw new CsvDataLoaderException(EXCEPTION_WHILE_WRITING_DATA, e);
         }
     }
 
+    private CsvReader.CsvReaderBuilder getCsvReaderBuilder() {
+        return CsvReader.builder().fieldSeparator(config.fieldSeparator()).quoteCharacter(config.quoteCharacter())
+                .skipEmptyLines(config.skipEmptyLines()).commentCharacter(config.commentCharacter())
+                .ignoreDifferentFieldCount(config.ignoreDifferentFieldCount());
+    }
+
+    /**
+     * Opens the records of the file. Compressed files are decompressed on an own
+     * thread, ahead of the parser. The bytes of the file that are read extend
+     * {@code content}, if it is not null.
+     */
+    private CloseableIterator<CsvRecord> openCsv(CsvReader.CsvReaderBuilder builder, Path path,
+            CsvFileRange.Prefix content) throws IOException {
+        CsvCompression compression = CsvCompression.of(path).orElse(CsvCompression.NONE);
+        if (compression == CsvCompression.NONE && content == null) {
+            return builder.ofCsvRecord(path, charset).iterator();
+        }
+        InputStream in = Files.newInputStream(path);
+        if (content != null) {
+            in = content.track(in, 0);
+        }
+        if (compression == CsvCompression.NONE) {
+            return builder.ofCsvRecord(new InputStreamReader(in, charset)).iterator();
+        }
+        try {
+            in = new ReadAheadInputStream(compression.decompress(in), "csv-decompress-" + path.getFileName(),
+                    DECOMPRESSION_CHUNK_SIZE, config.pipelineQueueCapacity());
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        return builder.ofCsvRecord(new InputStreamReader(in, charset)).iterator();
+    }
+
+    private Reader newReader(FileChannel channel, long start, long end, CsvFileRange.Prefix prefix) {
+        return new InputStreamReader(prefix.track(CsvFileRange.newInputStream(channel, start, end), start), charset);
+    }
+
+    private static boolean tableExists(Connection connection, TableReference table) throws SQLException {
+        String schema = table.schema().map(SchemaReference::name).orElse(null);
+        try (ResultSet rs = connection.getMetaData().getTables(null, schema, table.name(), null)) {
+            return rs.next();
+        }
+    }
+
+    private String getLoadStateKey(Path path) {
+        return basePath.relativize(path).toString().replace('\\', '/');
+    }
+
     private void dropTable(Connection connection, TableReference table) throws SQLException {
         try {
 
@@ -230,120 +735,67 @@ public class CsvDataLoader implements FileSystemWatcherListener {
         return Optional.of(new SchemaReferenceR(fileName));
     }
 
-    private void batchExecute(Connection connection, PreparedStatement ps, CloseableIterator<NamedCsvRecord> it,
-            List<ColumnDefinition> columns) throws SQLException {
-
-        connection.setAutoCommit(false);
-        long start = System.currentTimeMillis();
-        int count = 0;
-        while (it.hasNext()) {
-            NamedCsvRecord r = it.next();
-
-            int colIndex = 1;
-            for (ColumnDefinition columnDefinition : columns) {
-                processingTypeValues(ps, columnDefinition, colIndex++, r);
-            }
-            ps.addBatch();
-            ps.clearParameters();
-            if (count % config.batchSize() == 0) {
-                ps.executeBatch();
-                LOGGER.debug("execute batch time {}", (System.currentTimeMillis() - start));
-                ps.getConnection().commit();
-                LOGGER.debug("execute commit time {}", (System.currentTimeMillis() - start));
-                start = System.currentTimeMillis();
+    /**
+     * Reads the header row with the column names and the row with the column
+     * types. Without header row the columns are named by position. Without types
+     * row the types are inferred from a sample of the first records, that stays
+     * part of the returned records. Markers behind the types and the sidecar file
+     * of the csv file declare the primary key and the indexes.
+     */
+    private CsvHeader readHeader(Iterator<CsvRecord> it, Path path) {
+        CsvIndexDescriptor sidecar = CsvIndexDescriptor.readSidecar(path);
+        List<String> header = null;
+        if (config.headerRow()) {
+            if (!it.hasNext()) {
+                throw new IllegalStateException("No header found");
             }
-            count++;
+            header = it.next().getFields();
         }
 
-        ps.executeBatch();
-        LOGGER.debug("execute batch time {}", (System.currentTimeMillis() - start));
-
-        connection.commit();
-        LOGGER.debug("execute commit time {}", (System.currentTimeMillis() - start));
-        connection.setAutoCommit(true);
-    }
-
-    private void processingTypeValues(PreparedStatement ps, ColumnDefinition columnDefinition, int index,
-            NamedCsvRecord r) throws SQLException {
-
-        ColumnReference column = columnDefinition.column();
-        String field = r.getField(column.name());
-
-        try {
-            setPrepareStatement(ps, index, columnDefinition, field);
-        } catch (SQLException e) {
-            throw new CsvDataLoaderException(EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT, e);
+        if (config.typesRow()) {
+            if (!it.hasNext()) {
+                throw new IllegalStateException("No types found");
+            }
+            CsvRecord types = it.next();
+            if (header == null) {
+                header = getColumnNames(types.getFieldCount());
+            }
+            List<ColumnMetaDataR> columnTypes = new ArrayList<>(header.size());
+            List<String> primaryKey = new ArrayList<>();
+            List<CsvIndexDescriptor.Index> indexes = new ArrayList<>();
+            for (int i = 0; i < header.size(); i++) {
+                String type = CsvIndexDescriptor.parseMarkers(types.getField(i), header.get(i), primaryKey, indexes);
+                columnTypes.add(parseColumnDataType(type));
+            }
+            CsvIndexDescriptor markers = new CsvIndexDescriptor(List.copyOf(primaryKey), List.copyOf(indexes));
+            return new CsvHeader(header, getHeadersTypeList(header, columnTypes), it, markers.merge(sidecar));
         }
-    }
-
-    private void setPrepareStatement(PreparedStatement ps, int index, ColumnDefinition columnDefinition, String field)
-            throws SQLException {
-
-        ColumnMetaData type = columnDefinition.columnType();
 
-        if (field == null || field.equals(config.nullValue())) {
-            ps.setObject(index, null);
-            return;
+        CsvTypeInference typeInference = new CsvTypeInference(config.nullValue());
+        List<CsvRecord> sample = new ArrayList<>();
+        while (sample.size() < config.typeInferenceSampleSize() && it.hasNext()) {
+            CsvRecord r = it.next();
+            typeInference.accept(r);
+            sample.add(r);
         }
-        switch (type.dataType()) {
-        case BOOLEAN: {
-            ps.setBoolean(index, field.equals("") ? Boolean.FALSE : Boolean.valueOf(field));
-            return;
-        }
-        case BIGINT: {
-            ps.setLong(index, field.equals("") ? 0l : Long.valueOf(field));
-            return;
-        }
-        case DATE: {
-            ps.setDate(index, Date.valueOf(field));
-            return;
-        }
-        case INTEGER: {
-            ps.setInt(index, field.equals("") ? 0 : Integer.valueOf(field));
-            return;
-        }
-        case DECIMAL: {
-            ps.setDouble(index, field.equals("") ? 0.0 : Double.valueOf(field));
-            return;
-        }
-        case NUMERIC: {
-            ps.setDouble(index, field.equals("") ? 0.0 : Double.valueOf(field));
-            return;
-        }
-        case REAL: {
-            ps.setDouble(index, field.equals("") ? 0.0 : Double.valueOf(field));
-            return;
-        }
-        case SMALLINT: {
-            ps.setShort(index, field.equals("") ? 0 : Short.valueOf(field));
-            return;
-        }
-        case TIMESTAMP: {
-            ps.setTimestamp(index, Timestamp.valueOf(field));
-            return;
-        }
-        case TIME: {
-            ps.setTime(index, Time.valueOf(field));
-            return;
-        }
-        case VARCHAR: {
-            ps.setString(index, field);
-            return;
+        if (header == null) {
+            header = getColumnNames(typeInference.columnCount());
         }
+        Iterator<CsvRecord> records = Stream.concat(sample.stream(),
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)).iterator();
+        return new CsvHeader(header, getHeadersTypeList(header, typeInference.result(header.size())), records,
+                sidecar);
+    }
 
-        default:
-            ps.setString(index, field);
-        }
+    private static List<String> getColumnNames(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> COLUMN_NAME_PREFIX + i).toList();
     }
 
-    private List<ColumnDefinition> getHeadersTypeList(NamedCsvRecord types) {
+    private List<ColumnDefinition> getHeadersTypeList(List<String> header, List<ColumnMetaDataR> types) {
         List<ColumnDefinition> result = new ArrayList<>();
-        if (types != null) {
-            for (String header : types.getHeader()) {
-                ColumnMetaDataR sqlType = parseColumnDataType(types.getField(header));
-                ColumnDefinition dbc = new ColumnDefinitionR(new ColumnReferenceR(header), sqlType);
-                result.add(dbc);
-            }
+        for (int i = 0; i < header.size(); i++) {
+            ColumnDefinition dbc = new ColumnDefinitionR(new ColumnReferenceR(header.get(i)), types.get(i));
+            result.add(dbc);
         }
         return result;
     }
@@ -384,6 +836,9 @@ public class CsvDataLoader implements FileSystemWatcherListener {
     }
 
     private String getFileNameWithoutExtension(String fileName) {
+        if (fileName.endsWith(CsvCompression.GZIP_EXTENSION)) {
+            return CsvCompression.GZIP.baseName(fileName);
+        }
         if (fileName.contains(".")) {
             return fileName.substring(0, fileName.lastIndexOf("."));
         } else {
@@ -393,19 +848,32 @@ public class CsvDataLoader implements FileSystemWatcherListener {
 
     private void delete(Path path) {
 
-        String tableName = getFileNameWithoutExtension(path.getFileName().toString());
-        LOGGER.debug("Drop table {}", tableName);
+        TableReference table = getTable(path);
+        Optional<CsvPartition> partition = getPartition(path);
+        loadTrackers.remove(getLoadStateKey(path));
 
-        try (Connection connection = dataSource.getConnection()) {
-            Optional<SchemaReference> schema = getSchemaFromPath(path);
+        try (ConnectionGate.Lease lease = connectionGate.lease()) {
+            Connection connection = lease.connection();
+            if (partition.isPresent()) {
+                if (tableExists(connection, table)) {
+                    deletePartition(connection, table, partition.get());
+                }
+            } else {
+                LOGGER.debug("Drop table {}", table.name());
 
-            DropContainerSqlStatementR dropStatement = new DropContainerSqlStatementR(
-                    new TableReferenceR(schema, tableName, "TABLE"), true);
+                DropContainerSqlStatementR dropStatement = new DropContainerSqlStatementR(table, true);
 
-            String sql = sqlStatementGenerator.getSqlOfStatement(dropStatement);
+                String sql = sqlStatementGenerator.getSqlOfStatement(dropStatement);
 
-            try (Statement stmnt = connection.createStatement()) {
-                stmnt.execute(sql);
+                try (Statement stmnt = connection.createStatement()) {
+                    stmnt.execute(sql);
+                }
+            }
+            if (loadStateRepository != null) {
+                loadStateRepository.delete(connection, getLoadStateKey(path));
+            }
+            if (fingerprintRepository != null) {
+                fingerprintRepository.delete(connection, getLoadStateKey(path));
             }
         } catch (SQLException e) {
             throw new CsvDataLoaderException(EXCEPTION_DATABASE_CONNECTION_ERROR, e);
@@ -416,7 +884,32 @@ public class CsvDataLoader implements FileSystemWatcherListener {
 
     @Override
     public void handleInitialPaths(List<Path> initialPaths) {
-        initialPaths.parallelStream().forEach(this::checkPathAndLoadCsv);
+        // largest files first, so they do not start last and stretch the startup
+        List<Callable<Void>> loads = initialPaths.stream()
+                .sorted(Comparator.comparingLong(CsvDataLoader::sizeOf).reversed())
+                .map(p -> (Callable<Void>) () -> {
+                    checkPathAndLoadCsv(p, true);
+                    return null;
+                }).toList();
+        try {
+            for (Future<Void> load : loadExecutor.invokeAll(loads)) {
+                try {
+                    load.get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Exception while initial load", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.isRegularFile(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
     }
 
     @Override
@@ -424,11 +917,21 @@ public class CsvDataLoader implements FileSystemWatcherListener {
         if (Files.isDirectory(path)) {
             return;
         }
-        if (kind.name().equals(StandardWatchEventKinds.ENTRY_MODIFY.name())
-                || kind.name().equals(StandardWatchEventKinds.ENTRY_CREATE.name())) {
-            checkPathAndLoadCsv(path);
+        boolean changed = kind.name().equals(StandardWatchEventKinds.ENTRY_MODIFY.name())
+                || kind.name().equals(StandardWatchEventKinds.ENTRY_CREATE.name());
+        boolean deleted = kind.name().equals(StandardWatchEventKinds.ENTRY_DELETE.name());
+        if (reloadScheduler != null) {
+            if (changed) {
+                reloadScheduler.changed(path, () -> checkPathAndLoadCsv(path, false));
+            } else if (deleted) {
+                reloadScheduler.deleted(path, () -> delete(path));
+            }
+            return;
+        }
+        if (changed) {
+            checkPathAndLoadCsv(path, false);
         }
-        if (kind.name().equals(StandardWatchEventKinds.ENTRY_DELETE.name())) {
+        if (deleted) {
             delete(path);
         }
     }
@@ -438,4 +941,19 @@ public class CsvDataLoader implements FileSystemWatcherListener {
         this.basePath = basePath;
     }
 
+    @Override
+    public Optional<Path> basePath() {
+        return Optional.ofNullable(basePath);
+    }
+
+    @Override
+    public List<CsvFileLoadMetrics> fileLoads() {
+        return loadTrackers.values().stream().sorted(Comparator.comparing(CsvLoadTracker::file))
+                .map(CsvFileLoadMetrics.class::cast).toList();
+    }
+
+    private record CsvHeader(List<String> fields, List<ColumnDefinition> columns, Iterator<CsvRecord> records,
+            CsvIndexDescriptor indexes) {
+    }
+
 }
@@ -41,11 +41,13 @@ public @interface CsvDataLoaderConfig {
     char fieldSeparator() default ',';
 
     /**
-     * @return Encoding default UTF-8
+     * @return Encoding of the csv files default UTF-8. Incremental and memory
+     *         mapped loads find the records in the bytes of the file, files in
+     *         UTF-16 are always loaded completely by the csv parser.
      */
-    @AttributeDefinition(description = "encoding", options = { @Option(value = "UTF-8"), @Option(value = "US_ASCII"),
-            @Option(value = "ISO_8859_1"), @Option(value = "UTF_16BE"), @Option(value = "UTF_16LE"),
-            @Option(value = "UTF_16") })
+    @AttributeDefinition(description = "encoding", options = { @Option(value = "UTF-8"), @Option(value = "US-ASCII"),
+            @Option(value = "ISO-8859-1"), @Option(value = "UTF-16BE"), @Option(value = "UTF-16LE"),
+            @Option(value = "UTF-16") })
     String encoding() default "UTF-8";
 
     /**
@@ -77,4 +79,218 @@ public @interface CsvDataLoaderConfig {
      */
     @AttributeDefinition(description = "batchSize", defaultValue = "5000")
     int batchSize() default 1000;
+
+    /**
+     * @return Writer Connections. Count of connections that write one file in
+     *         parallel. A value greater than 1 enables the load pipeline.
+     */
+    @AttributeDefinition(description = "writerConnections", defaultValue = "1")
+    int writerConnections() default 1;
+
+    /**
+     * @return Pipeline Queue Capacity. Count of parsed batches that wait for a
+     *         writer connection.
+     */
+    @AttributeDefinition(description = "pipelineQueueCapacity", defaultValue = "4")
+    int pipelineQueueCapacity() default 4;
+
+    /**
+     * @return Bulk Load. Let the database read the csv file itself if a bulk load
+     *         strategy exists for it (H2: CSVREAD, needs admin rights). CSVREAD
+     *         loads unquoted empty fields as NULL instead of 0 or empty text.
+     */
+    @AttributeDefinition(description = "bulkLoad", defaultValue = "false")
+    boolean bulkLoad() default false;
+
+    /**
+     * @return Incremental Load. Load only the records appended since the last load
+     *         and reload the table only if the already loaded part of the file
+     *         changed. Partition files are always loaded as a whole.
+     */
+    @AttributeDefinition(description = "incrementalLoad", defaultValue = "false")
+    boolean incrementalLoad() default false;
+
+    /**
+     * @return Load State Table. Control table that holds the state of the
+     *         incrementally loaded files.
+     */
+    @AttributeDefinition(description = "loadStateTable", defaultValue = "CSV_LOAD_STATE")
+    String loadStateTable() default "CSV_LOAD_STATE";
+
+    /**
+     * @return Shadow Table Load. Load a file into a shadow table and swap it in
+     *         with a rename, so the table is never half loaded. Partition files
+     *         are loaded in one transaction instead.
+     */
+    @AttributeDefinition(description = "shadowTableLoad", defaultValue = "false")
+    boolean shadowTableLoad() default false;
+
+    /**
+     * @return Shadow Table Suffix. Appended to the table name for the shadow
+     *         table.
+     */
+    @AttributeDefinition(description = "shadowTableSuffix", defaultValue = "__shadow")
+    String shadowTableSuffix() default "__shadow";
+
+    /**
+     * @return Loader Threads. Count of files that are loaded in parallel at
+     *         startup.
+     */
+    @AttributeDefinition(description = "loaderThreads", defaultValue = "4")
+    int loaderThreads() default 4;
+
+    /**
+     * @return Max Connections. Count of connections the loader holds at the same
+     *         time, writer connections of the pipeline included.
+     */
+    @AttributeDefinition(description = "maxConnections", defaultValue = "8")
+    int maxConnections() default 8;
+
+    /**
+     * @return Header Row. The first row holds the column names. Without header
+     *         row the columns are named COLUMN_1, COLUMN_2, ...
+     */
+    @AttributeDefinition(description = "headerRow", defaultValue = "true")
+    boolean headerRow() default true;
+
+    /**
+     * @return Types Row. The row after the header holds the JDBC types of the
+     *         columns. Without types row the types are inferred from a sample.
+     */
+    @AttributeDefinition(description = "typesRow", defaultValue = "true")
+    boolean typesRow() default true;
+
+    /**
+     * @return Type Inference Sample Size. Count of records that are used to infer
+     *         the column types of files without types row.
+     */
+    @AttributeDefinition(description = "typeInferenceSampleSize", defaultValue = "1000")
+    int typeInferenceSampleSize() default 1000;
+
+    /**
+     * @return Memory Mapped Read. Read large local files memory mapped and parse
+     *         them in parallel. Line breaks inside of quoted fields are not
+     *         supported in this mode. Files are only read this way if
+     *         ignoreDifferentFieldCount is set, the reader does not check the
+     *         field count.
+     */
+    @AttributeDefinition(description = "memoryMappedRead", defaultValue = "false")
+    boolean memoryMappedRead() default false;
+
+    /**
+     * @return Parse Threads. Count of threads that parse the segments of one
+     *         memory mapped file.
+     */
+    @AttributeDefinition(description = "parseThreads", defaultValue = "4")
+    int parseThreads() default 4;
+
+    /**
+     * @return Adaptive Batch Size. Start with the batch size and grow or shrink
+     *         it, so a batch executes in about the batch target latency.
+     */
+    @AttributeDefinition(description = "adaptiveBatchSize", defaultValue = "true")
+    boolean adaptiveBatchSize() default true;
+
+    /**
+     * @return Batch Target Latency. Execution time in milliseconds the adaptive
+     *         batch size aims at.
+     */
+    @AttributeDefinition(description = "batchTargetLatency", defaultValue = "250")
+    int batchTargetLatency() default 250;
+
+    /**
+     * @return Min Batch Size. Lower bound of the adaptive batch size.
+     */
+    @AttributeDefinition(description = "minBatchSize", defaultValue = "100")
+    int minBatchSize() default 100;
+
+    /**
+     * @return Max Batch Size. Upper bound of the adaptive batch size.
+     */
+    @AttributeDefinition(description = "maxBatchSize", defaultValue = "50000")
+    int maxBatchSize() default 50000;
+
+    /**
+     * @return Max Batch Bytes. Upper bound of the csv bytes in one adaptive
+     *         batch.
+     */
+    @AttributeDefinition(description = "maxBatchBytes", defaultValue = "16777216")
+    int maxBatchBytes() default 16 * 1024 * 1024;
+
+    /**
+     * @return Commit Row Interval. Count of rows after that the loaded batches
+     *         are committed. 0 commits once at the end of the file.
+     */
+    @AttributeDefinition(description = "commitRowInterval", defaultValue = "100000")
+    int commitRowInterval() default 100000;
+
+    /**
+     * @return Max Rejected Rows. Count of rows per file that may fail to convert.
+     *         They are written with line number and reason to a .rejects.csv
+     *         file beside the csv file. 0 aborts the load on the first malformed
+     *         row, a negative value never aborts.
+     */
+    @AttributeDefinition(description = "maxRejectedRows", defaultValue = "0")
+    int maxRejectedRows() default 0;
+
+    /**
+     * @return Index Threads. Count of connections that build the indexes of a
+     *         loaded table in parallel. Indexes are declared by markers in the
+     *         types row or by a .index.properties file beside the csv file.
+     */
+    @AttributeDefinition(description = "indexThreads", defaultValue = "4")
+    int indexThreads() default 4;
+
+    /**
+     * @return Skip Unchanged Files. Remember a fingerprint of size, modification
+     *         time and content checksum of every loaded file and skip the files
+     *         with an unchanged fingerprint at startup.
+     */
+    @AttributeDefinition(description = "skipUnchangedFiles", defaultValue = "false")
+    boolean skipUnchangedFiles() default false;
+
+    /**
+     * @return Fingerprint Table. Control table that holds the fingerprints of
+     *         the loaded files.
+     */
+    @AttributeDefinition(description = "fingerprintTable", defaultValue = "CSV_FILE_FINGERPRINT")
+    String fingerprintTable() default "CSV_FILE_FINGERPRINT";
+
+    /**
+     * @return Reload Quiet Period. Time in milliseconds size and modification
+     *         time of a changed file must be stable before it is reloaded. An
+     *         event of a file cancels its running reload. 0 reloads on every
+     *         event.
+     */
+    @AttributeDefinition(description = "reloadQuietPeriod", defaultValue = "0")
+    long reloadQuietPeriod() default 0;
+
+    /**
+     * @return Partition Pattern. Regular expression with the groups table and
+     *         partition. Files whose name without extension matches are loaded
+     *         into the partition of the table, e.g.
+     *         (?&lt;table&gt;.+)_(?&lt;partition&gt;\d{4}-\d{2}-\d{2}). Empty
+     *         loads every file into its own table. A partition is always
+     *         replaced in one transaction, the incremental and the shadow table
+     *         load do not apply to partition files.
+     */
+    @AttributeDefinition(description = "partitionPattern", defaultValue = "")
+    String partitionPattern() default "";
+
+    /**
+     * @return Partition Column. Column of a partitioned table that holds the
+     *         partition key of the file a row was loaded from.
+     */
+    @AttributeDefinition(description = "partitionColumn", defaultValue = "PARTITION_KEY")
+    String partitionColumn() default "PARTITION_KEY";
+
+    /**
+     * @return Off-Heap Staging. Stage the records that wait in the load
+     *         pipeline as primitive values in reusable direct buffers instead
+     *         of keeping the parsed records, only the text of text columns is
+     *         kept. Used by the pipeline of several writer connections and by
+     *         memory mapped reads, not by tolerant loads.
+     */
+    @AttributeDefinition(description = "offHeapStaging", defaultValue = "false")
+    boolean offHeapStaging() default false;
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+
+/**
+ * Binds the text of one csv field to one parameter of a
+ * {@link PreparedStatement}. Binders are compiled once per file from the
+ * {@link ColumnDefinition}s, so the type of a column is not resolved again for
+ * every cell.
+ */
+interface CsvFieldBinder {
+
+    void bind(PreparedStatement ps, String field) throws SQLException;
+
+    static CsvFieldBinder[] compile(List<ColumnDefinition> columns, String nullValue) {
+        CsvFieldBinder[] binders = new CsvFieldBinder[columns.size()];
+        for (int i = 0; i < binders.length; i++) {
+            binders[i] = of(columns.get(i).columnType().dataType(), i + 1, nullValue);
+        }
+        return binders;
+    }
+
+    static CsvFieldBinder of(JDBCType type, int index, String nullValue) {
+        return switch (type) {
+        case BOOLEAN -> new BooleanBinder(type, index, nullValue);
+        case BIGINT -> new LongBinder(type, index, nullValue);
+        case DATE -> new DateBinder(type, index, nullValue);
+        case INTEGER -> new IntBinder(type, index, nullValue);
+        case DECIMAL, NUMERIC, REAL -> new DoubleBinder(type, index, nullValue);
+        case SMALLINT -> new ShortBinder(type, index, nullValue);
+        case TIMESTAMP -> new TimestampBinder(type, index, nullValue);
+        case TIME -> new TimeBinder(type, index, nullValue);
+        default -> new StringBinder(type, index, nullValue);
+        };
+    }
+
+    abstract class NullableBinder implements CsvFieldBinder {
+
+        protected final int index;
+        private final int sqlType;
+        private final String nullValue;
+
+        NullableBinder(JDBCType type, int index, String nullValue) {
+            this.index = index;
+            this.sqlType = type.getVendorTypeNumber();
+            this.nullValue = nullValue;
+        }
+
+        @Override
+        public final void bind(PreparedStatement ps, String field) throws SQLException {
+            if (field == null || field.equals(nullValue)) {
+                ps.setNull(index, sqlType);
+                return;
+            }
+            bindValue(ps, field);
+        }
+
+        abstract void bindValue(PreparedStatement ps, String field) throws SQLException;
+    }
+
+    final class BooleanBinder extends NullableBinder {
+
+        BooleanBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setBoolean(index, Boolean.parseBoolean(field));
+        }
+    }
+
+    final class LongBinder extends NullableBinder {
+
+        LongBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setLong(index, field.isEmpty() ? 0L : Long.parseLong(field));
+        }
+    }
+
+    final class IntBinder extends NullableBinder {
+
+        IntBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setInt(index, field.isEmpty() ? 0 : Integer.parseInt(field));
+        }
+    }
+
+    final class ShortBinder extends NullableBinder {
+
+        ShortBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setShort(index, field.isEmpty() ? 0 : Short.parseShort(field));
+        }
+    }
+
+    final class DoubleBinder extends NullableBinder {
+
+        DoubleBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setDouble(index, field.isEmpty() ? 0.0 : Double.parseDouble(field));
+        }
+    }
+
+    final class DateBinder extends NullableBinder {
+
+        DateBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setDate(index, Date.valueOf(field));
+        }
+    }
+
+    final class TimestampBinder extends NullableBinder {
+
+        TimestampBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setTimestamp(index, Timestamp.valueOf(field));
+        }
+    }
+
+    final class TimeBinder extends NullableBinder {
+
+        TimeBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setTime(index, Time.valueOf(field));
+        }
+    }
+
+    final class StringBinder extends NullableBinder {
+
+        StringBinder(JDBCType type, int index, String nullValue) {
+            super(type, index, nullValue);
+        }
+
+        @Override
+        void bindValue(PreparedStatement ps, String field) throws SQLException {
+            ps.setString(index, field);
+        }
+    }
+}
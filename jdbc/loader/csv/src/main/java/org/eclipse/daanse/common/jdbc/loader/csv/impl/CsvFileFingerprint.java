@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Identifies the content of a loaded csv file, so an unchanged file is not
+ * loaded again after a restart. The modification time is not reliable, copies
+ * and checkouts touch it and keep the content, so the content is compared by
+ * size and a checksum of all bytes only. The modification time is kept for
+ * information.
+ *
+ * @param file         key of the file, relative to the base path
+ * @param size         size of the file in bytes
+ * @param lastModified modification time of the file in milliseconds
+ * @param contentHash  checksum of the file, see
+ *                     {@link CsvFileRange#contentChecksum}
+ */
+record CsvFileFingerprint(String file, long size, long lastModified, long contentHash) {
+
+    /**
+     * @return true if both fingerprints are of the same file with the same size
+     *         and checksum, independent of the modification time
+     */
+    boolean hasSameContent(CsvFileFingerprint other) {
+        return file.equals(other.file) && size == other.size && contentHash == other.contentHash;
+    }
+
+    static CsvFileFingerprint of(String file, Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            return new CsvFileFingerprint(file, channel.size(), lastModified, CsvFileRange.contentChecksum(channel));
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while reading fingerprint of " + path, e);
+        }
+    }
+
+    /**
+     * Fingerprint of the content that was loaded. The loader checksums the bytes
+     * it reads into {@code content}, only the bytes it did not read, because a
+     * strategy read the file itself, are read again.
+     *
+     * @param lastModified modification time of the file before the load
+     * @return empty if the file was modified or deleted since, the loaded
+     *         content is not known then
+     */
+    static Optional<CsvFileFingerprint> of(String file, Path path, long lastModified, CsvFileRange.Prefix content) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (content.length() > size || Files.getLastModifiedTime(path).toMillis() != lastModified) {
+                return Optional.empty();
+            }
+            content.extend(channel, size);
+            return Optional.of(new CsvFileFingerprint(file, size, lastModified, content.checksum()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while reading fingerprint of " + path, e);
+        }
+    }
+
+    static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while reading fingerprint of " + path, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateContainerSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DeleteSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.InsertSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.SelectSqlStatementR;
+
+/**
+ * Stores the {@link CsvFileFingerprint} of every loaded csv file in a control
+ * table of the database, so it survives a restart together with the loaded
+ * tables.
+ */
+final class CsvFileFingerprintRepository {
+
+    private static final ColumnReference FILE_PATH = new ColumnReferenceR("FILE_PATH");
+    private static final ColumnReference FILE_SIZE = new ColumnReferenceR("FILE_SIZE");
+    private static final ColumnReference LAST_MODIFIED = new ColumnReferenceR("LAST_MODIFIED");
+    private static final ColumnReference CONTENT_HASH = new ColumnReferenceR("CONTENT_HASH");
+
+    private static final List<ColumnReference> COLUMNS = List.of(FILE_PATH, FILE_SIZE, LAST_MODIFIED, CONTENT_HASH);
+
+    private final SqlStatementGenerator sqlStatementGenerator;
+    private final TableReference fingerprintTable;
+
+    private final String sqlSelect;
+    private final String sqlDelete;
+    private final String sqlInsert;
+
+    CsvFileFingerprintRepository(SqlStatementGenerator sqlStatementGenerator, TableReference fingerprintTable) {
+        this.sqlStatementGenerator = sqlStatementGenerator;
+        this.fingerprintTable = fingerprintTable;
+        sqlSelect = sqlStatementGenerator.getSqlOfStatement(
+                new SelectSqlStatementR(fingerprintTable, COLUMNS, List.of(FILE_PATH), List.of("?")));
+        sqlDelete = sqlStatementGenerator
+                .getSqlOfStatement(new DeleteSqlStatementR(fingerprintTable, List.of(FILE_PATH), List.of("?")));
+        sqlInsert = sqlStatementGenerator.getSqlOfStatement(
+                new InsertSqlStatementR(fingerprintTable, COLUMNS, COLUMNS.stream().map(c -> "?").toList()));
+    }
+
+    void createTable(Connection connection) throws SQLException {
+        List<ColumnDefinition> columns = List.of(
+                new ColumnDefinitionR(FILE_PATH,
+                        new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(1024), Optional.empty(), Optional.empty())),
+                column(FILE_SIZE), column(LAST_MODIFIED), column(CONTENT_HASH));
+        String sql = sqlStatementGenerator
+                .getSqlOfStatement(new CreateContainerSqlStatementR(fingerprintTable, columns, true));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    Optional<CsvFileFingerprint> read(Connection connection, String file) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sqlSelect)) {
+            ps.setString(1, file);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional
+                        .of(new CsvFileFingerprint(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+            }
+        }
+    }
+
+    void write(Connection connection, CsvFileFingerprint fingerprint) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sqlInsert)) {
+            delete(connection, fingerprint.file());
+            ps.setString(1, fingerprint.file());
+            ps.setLong(2, fingerprint.size());
+            ps.setLong(3, fingerprint.lastModified());
+            ps.setLong(4, fingerprint.contentHash());
+            ps.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    void delete(Connection connection, String file) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sqlDelete)) {
+            ps.setString(1, file);
+            ps.executeUpdate();
+        }
+    }
+
+    private static ColumnDefinition column(ColumnReference column) {
+        return new ColumnDefinitionR(column,
+                new ColumnMetaDataR(JDBCType.BIGINT, Optional.empty(), Optional.empty(), Optional.empty()));
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Helpers to read byte ranges of a csv file through a shared
+ * {@link FileChannel}. All reads are positional, so the ranges do not influence
+ * each other or the position of the channel.
+ */
+final class CsvFileRange {
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private static final int CONTENT_BLOCK_SIZE = 1024 * 1024;
+
+    private CsvFileRange() {
+    }
+
+    /**
+     * Checks that the charset encodes the ASCII characters as the same single
+     * bytes, so line separators, field separators and quotes can be found in
+     * the bytes of the file. True for UTF-8 and the ISO-8859 charsets, false
+     * for UTF-16.
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        char[] ascii = new char[127];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (char) (i + 1);
+        }
+        String s = new String(ascii);
+        return Arrays.equals(s.getBytes(charset), s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the position behind the last line separator of the file. A last
+     * line without separator may still be written and is not part of the range.
+     */
+    static long recordEnd(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - BLOCK_SIZE);
+            buffer.clear().limit((int) (end - start));
+            readFully(channel, buffer, start);
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Creates an empty {@link Prefix}, extended by the bytes of the file that
+     * are read through it.
+     */
+    static Prefix prefix() {
+        return new Prefix();
+    }
+
+    /**
+     * Reads the first {@code length} bytes of the file into a {@link Prefix}.
+     */
+    static Prefix prefix(FileChannel channel, long length) throws IOException {
+        Prefix prefix = new Prefix();
+        prefix.extend(channel, length);
+        return prefix;
+    }
+
+    /**
+     * Checksum of all bytes of the file. CRC32C is computed with the CRC
+     * instructions of the CPU where available, so it is bound by the read speed
+     * of the file.
+     */
+    static long contentChecksum(FileChannel channel) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CONTENT_BLOCK_SIZE);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer.clear(), position)) >= 0) {
+            position += read;
+            crc.update(buffer.flip());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Opens an {@link InputStream} over the bytes from {@code start} to
+     * {@code end}. Closing the stream does not close the channel.
+     */
+    static InputStream newInputStream(FileChannel channel, long start, long end) {
+        return new RangeInputStream(channel, start, end);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long p = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, p);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at " + p);
+            }
+            p += read;
+        }
+    }
+
+    /**
+     * Checksum and count of lines of all bytes at the start of a file. The
+     * checksum covers every byte, so any change of the prefix is detected. A
+     * prefix is extended to a longer one without reading its bytes again, and by
+     * the bytes of the streams it {@link #track(InputStream, long) tracks}.
+     */
+    static final class Prefix {
+
+        private final CRC32C crc = new CRC32C();
+        private long length;
+        private long lines;
+
+        private Prefix() {
+        }
+
+        /**
+         * Reads the bytes behind the prefix up to {@code end}.
+         */
+        void extend(FileChannel channel, long end) throws IOException {
+            ByteBuffer buffer = ByteBuffer
+                    .allocateDirect((int) Math.min(CONTENT_BLOCK_SIZE, Math.max(1, end - length)));
+            while (length < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - length));
+                readFully(channel, buffer, length);
+                for (int i = 0; i < buffer.limit(); i++) {
+                    if (buffer.get(i) == '\n') {
+                        lines++;
+                    }
+                }
+                crc.update(buffer.flip());
+                length += buffer.limit();
+            }
+        }
+
+        /**
+         * Wraps a stream that reads the file from {@code position}. The bytes it
+         * reads directly behind the prefix extend the prefix, so a reader that
+         * reads the file anyway saves {@link #extend} a pass over them.
+         */
+        InputStream track(InputStream in, long position) {
+            return new FilterInputStream(in) {
+
+                private long streamPosition = position;
+
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = in.read(b, off, len);
+                    if (read > 0) {
+                        update(b, off, read, streamPosition);
+                        streamPosition += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = in.skip(n);
+                    streamPosition += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public boolean markSupported() {
+                    return false;
+                }
+            };
+        }
+
+        private void update(byte[] b, int off, int len, long position) {
+            // bytes behind a gap or within the prefix do not extend it
+            if (position > length || position + len <= length) {
+                return;
+            }
+            int from = off + (int) (length - position);
+            for (int i = from; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+            crc.update(b, from, off + len - from);
+            length = position + len;
+        }
+
+        long length() {
+            return length;
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        /**
+         * @return count of line separators, the lines before the end if the prefix
+         *         ends behind a line separator
+         */
+        long lineCount() {
+            return lines;
+        }
+    }
+
+    private static final class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int n = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(b, off, n), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // the channel is owned by the caller
+        }
+    }
+}
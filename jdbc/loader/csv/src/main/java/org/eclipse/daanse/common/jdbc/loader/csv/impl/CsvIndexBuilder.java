@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.AddPrimaryKeySqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateIndexSqlStatementR;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the primary key and the indexes of a {@link CsvIndexDescriptor} after
+ * the table is loaded, so the inserts do not maintain them row by row. The
+ * primary key is added first on the connection of the load. The indexes are
+ * built in parallel on up to {@code indexThreads} connections, the additional
+ * ones only if the {@link ConnectionGate} has a free connection.
+ */
+final class CsvIndexBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvIndexBuilder.class);
+
+    private final ConnectionGate connectionGate;
+    private final SqlStatementGenerator sqlStatementGenerator;
+    private final int indexThreads;
+
+    CsvIndexBuilder(ConnectionGate connectionGate, SqlStatementGenerator sqlStatementGenerator, int indexThreads) {
+        this.connectionGate = connectionGate;
+        this.sqlStatementGenerator = sqlStatementGenerator;
+        this.indexThreads = Math.max(1, indexThreads);
+    }
+
+    /**
+     * @param table      the loaded table
+     * @param namePrefix prefix of the index names, indexes share the namespace
+     *                   of the schema on most databases
+     */
+    void build(Connection connection, TableReference table, String namePrefix, CsvIndexDescriptor descriptor)
+            throws SQLException {
+        if (descriptor.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (!descriptor.primaryKey().isEmpty()) {
+            execute(connection, sqlStatementGenerator.getSqlOfStatement(
+                    new AddPrimaryKeySqlStatementR(table, Optional.empty(), columns(descriptor.primaryKey()))));
+        }
+
+        Queue<String> statements = new ConcurrentLinkedQueue<>();
+        for (CsvIndexDescriptor.Index index : descriptor.indexes()) {
+            statements.add(sqlStatementGenerator.getSqlOfStatement(new CreateIndexSqlStatementR(
+                    namePrefix + "_" + index.name(), table, columns(index.columns()), index.unique(), true)));
+        }
+
+        List<ConnectionGate.Lease> leases = new ArrayList<>();
+        try {
+            for (int i = 1; i < Math.min(indexThreads, statements.size()); i++) {
+                Optional<ConnectionGate.Lease> lease = connectionGate.tryLease();
+                if (lease.isEmpty()) {
+                    break;
+                }
+                leases.add(lease.get());
+            }
+            List<SQLException> failures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(1 + leases.size())) {
+                executor.execute(() -> drain(connection, statements, failures));
+                for (ConnectionGate.Lease lease : leases) {
+                    executor.execute(() -> drain(lease.connection(), statements, failures));
+                }
+            }
+            if (!failures.isEmpty()) {
+                CsvDataLoaderException e = new CsvDataLoaderException(
+                        "Exception while creating index on " + table.name(), failures.get(0));
+                failures.stream().skip(1).forEach(e::addSuppressed);
+                throw e;
+            }
+        } finally {
+            for (ConnectionGate.Lease lease : leases) {
+                lease.close();
+            }
+        }
+        LOGGER.debug("built {} indexes of {} with {} connections in {}", descriptor.indexes().size(), table.name(),
+                1 + leases.size(), (System.currentTimeMillis() - start));
+    }
+
+    private static void drain(Connection connection, Queue<String> statements, List<SQLException> failures) {
+        String sql;
+        while ((sql = statements.poll()) != null) {
+            try {
+                execute(connection, sql);
+            } catch (SQLException e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        LOGGER.debug("execute {}", sql);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private static List<ColumnReference> columns(List<String> names) {
+        return names.stream().map(n -> (ColumnReference) new ColumnReferenceR(n)).toList();
+    }
+}
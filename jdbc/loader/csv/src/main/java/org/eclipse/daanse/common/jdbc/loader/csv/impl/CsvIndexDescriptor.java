@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Primary key and indexes of a csv table, built after the data is loaded.
+ * <p>
+ * They are declared by markers behind the type in the types row, like
+ * {@code INTEGER PK} or {@code VARCHAR(40) INDEX} or {@code VARCHAR(40) UNIQUE},
+ * or for indexes over several columns by a {@value #SIDECAR_EXTENSION} file
+ * beside the csv file:
+ *
+ * <pre>
+ * primaryKey=id
+ * index.byName=lastName,firstName
+ * unique.byCode=code
+ * </pre>
+ *
+ * Changes of the sidecar file take effect with the next load of the csv file.
+ *
+ * @param primaryKey columns of the primary key, empty for none
+ * @param indexes    the indexes
+ */
+record CsvIndexDescriptor(List<String> primaryKey, List<CsvIndexDescriptor.Index> indexes) {
+
+    static final String SIDECAR_EXTENSION = ".index.properties";
+
+    static final CsvIndexDescriptor EMPTY = new CsvIndexDescriptor(List.of(), List.of());
+
+    private static final String MARKER_PRIMARY_KEY = "PK";
+    private static final String MARKER_INDEX = "INDEX";
+    private static final String MARKER_UNIQUE = "UNIQUE";
+
+    private static final String PROPERTY_PRIMARY_KEY = "primaryKey";
+    private static final String PROPERTY_PREFIX_INDEX = "index.";
+    private static final String PROPERTY_PREFIX_UNIQUE = "unique.";
+
+    /**
+     * @param name    name of the index, unique per table
+     * @param unique  true for an unique index
+     * @param columns the indexed columns
+     */
+    record Index(String name, boolean unique, List<String> columns) {
+    }
+
+    boolean isEmpty() {
+        return primaryKey.isEmpty() && indexes.isEmpty();
+    }
+
+    /**
+     * @return the descriptor with the primary key of this, if any, otherwise of
+     *         the other, and the indexes of both
+     */
+    CsvIndexDescriptor merge(CsvIndexDescriptor other) {
+        List<Index> all = new ArrayList<>(indexes);
+        all.addAll(other.indexes);
+        return new CsvIndexDescriptor(primaryKey.isEmpty() ? other.primaryKey : primaryKey, List.copyOf(all));
+    }
+
+    /**
+     * Splits the markers from a cell of the types row.
+     *
+     * @return the type without markers
+     */
+    static String parseMarkers(String typeCell, String column, List<String> primaryKey, List<Index> indexes) {
+        String[] tokens = typeCell.trim().split("\\s+");
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i].toUpperCase(Locale.ROOT)) {
+            case MARKER_PRIMARY_KEY -> primaryKey.add(column);
+            case MARKER_INDEX -> indexes.add(new Index(column, false, List.of(column)));
+            case MARKER_UNIQUE -> indexes.add(new Index(column + "_unique", true, List.of(column)));
+            default -> throw new CsvDataLoaderException("Unknown marker " + tokens[i] + " in type of column " + column);
+            }
+        }
+        return tokens[0];
+    }
+
+    static Path sidecarPath(Path csvFile) {
+        String fileName = csvFile.getFileName().toString();
+        String baseName = CsvCompression.of(csvFile).map(c -> c.baseName(fileName)).orElse(fileName);
+        return csvFile.resolveSibling(baseName + SIDECAR_EXTENSION);
+    }
+
+    /**
+     * @return the descriptor of the sidecar file of the csv file, empty if there
+     *         is none
+     */
+    static CsvIndexDescriptor readSidecar(Path csvFile) {
+        Path sidecar = sidecarPath(csvFile);
+        if (!Files.isRegularFile(sidecar)) {
+            return EMPTY;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(sidecar, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while reading index descriptor " + sidecar, e);
+        }
+
+        List<String> primaryKey = columns(properties.getProperty(PROPERTY_PRIMARY_KEY, ""));
+        List<Index> indexes = new ArrayList<>();
+        for (String key : properties.stringPropertyNames().stream().sorted().toList()) {
+            if (key.startsWith(PROPERTY_PREFIX_INDEX)) {
+                indexes.add(new Index(key.substring(PROPERTY_PREFIX_INDEX.length()), false,
+                        columns(properties.getProperty(key))));
+            } else if (key.startsWith(PROPERTY_PREFIX_UNIQUE)) {
+                indexes.add(new Index(key.substring(PROPERTY_PREFIX_UNIQUE.length()), true,
+                        columns(properties.getProperty(key))));
+            }
+        }
+        return new CsvIndexDescriptor(primaryKey, List.copyOf(indexes));
+    }
+
+    private static List<String> columns(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
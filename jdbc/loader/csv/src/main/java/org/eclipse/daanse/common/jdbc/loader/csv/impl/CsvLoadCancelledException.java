@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+/**
+ * Thrown inside of a load that was cancelled, because a newer version of the
+ * file showed up.
+ */
+public class CsvLoadCancelledException extends CsvDataLoaderException {
+
+    private static final long serialVersionUID = -2618164213364924331L;
+
+    public CsvLoadCancelledException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pipelined loader for one csv file. The calling thread parses the file and
+ * hands chunks of records over a bounded queue to writer threads. Every writer
+ * converts and binds its chunks on its own {@link Connection} and executes
+ * them as one JDBC batch, so parsing, conversion and batch execution overlap.
+ * The size of the chunks and the commits are controlled by an
+ * {@link AdaptiveBatchController}.
+ * Additional writers only start if the {@link ConnectionGate} has a free
+ * connection, otherwise the file is written with fewer connections.
+ *
+ * @param <R> type of the parsed csv record
+ * @param <C> type of the chunks the records are collected in
+ */
+final class CsvLoadPipeline<R, C extends CsvLoadPipeline.Chunk<R>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvLoadPipeline.class);
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Records that are handed from a producer to a writer as one batch.
+     */
+    interface Chunk<R> {
+
+        void add(R record);
+
+        int size();
+
+        /**
+         * Called when the writer executed the batch of the chunk, so its memory
+         * could be reused.
+         */
+        default void release() {
+        }
+    }
+
+    /**
+     * {@link Chunk} that keeps the records.
+     */
+    record ListChunk<R>(List<R> records) implements Chunk<R> {
+
+        ListChunk(int capacity) {
+            this(new ArrayList<>(capacity));
+        }
+
+        @Override
+        public void add(R record) {
+            records.add(record);
+        }
+
+        @Override
+        public int size() {
+            return records.size();
+        }
+    }
+
+    /**
+     * Binds one chunk of records into the batch of the given
+     * {@link PreparedStatement}.
+     */
+    @FunctionalInterface
+    interface ChunkBinder<C> {
+
+        /**
+         * @return count and csv bytes of the bound records, rejected records are
+         *         not bound
+         */
+        BoundChunk bind(PreparedStatement ps, C chunk) throws SQLException;
+    }
+
+    /**
+     * @param rows  count of bound records
+     * @param bytes csv bytes of the bound records
+     */
+    record BoundChunk(int rows, long bytes) {
+    }
+
+    /**
+     * @return count of UTF-8 bytes of the csv field and its separator, a
+     *         missing field counts its separator only
+     */
+    static long fieldBytes(String field) {
+        if (field == null) {
+            return 1;
+        }
+        int length = field.length();
+        long bytes = length + 1;
+        for (int i = 0; i < length; i++) {
+            char ch = field.charAt(i);
+            if (ch < 0x80) {
+                continue;
+            }
+            if (ch < 0x800) {
+                bytes++;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length
+                    && Character.isLowSurrogate(field.charAt(i + 1))) {
+                // a pair of two chars is four bytes
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(ch)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private final ConnectionGate connectionGate;
+    private final int writerConnections;
+    private final int queueCapacity;
+    private final AdaptiveBatchController batchController;
+    private final IntFunction<C> chunkFactory;
+
+    /**
+     * @param chunkFactory creates a chunk for the given count of records
+     */
+    CsvLoadPipeline(ConnectionGate connectionGate, int writerConnections, int queueCapacity,
+            AdaptiveBatchController batchController, IntFunction<C> chunkFactory) {
+        this.connectionGate = connectionGate;
+        this.writerConnections = Math.max(1, writerConnections);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchController = batchController;
+        this.chunkFactory = chunkFactory;
+    }
+
+    /**
+     * Runs the pipeline. The first writer uses the given connection, all other
+     * writers lease their own connection from the {@link ConnectionGate}.
+     *
+     * @return count of written records
+     */
+    long run(Connection connection, String sql, Iterator<R> it, ChunkBinder<C> chunkBinder) throws SQLException {
+        return run(connection, sql, List.of(it), 1, chunkBinder);
+    }
+
+    /**
+     * Runs the pipeline with several sources of records. A single source is
+     * drained by the calling thread, several sources are drained in parallel by
+     * up to {@code producers} threads.
+     *
+     * @return count of written records
+     */
+    long run(Connection connection, String sql, List<? extends Iterator<R>> sources, int producers,
+            ChunkBinder<C> chunkBinder) throws SQLException {
+
+        BlockingQueue<C> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong written = new AtomicLong();
+        C endOfData = chunkFactory.apply(0);
+
+        List<ConnectionGate.Lease> leases = new ArrayList<>(writerConnections - 1);
+        for (int i = 1; i < writerConnections; i++) {
+            Optional<ConnectionGate.Lease> lease = connectionGate.tryLease();
+            if (lease.isEmpty()) {
+                break;
+            }
+            leases.add(lease.get());
+        }
+        int writers = 1 + leases.size();
+
+        long start = System.currentTimeMillis();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            executor.execute(() -> {
+                try {
+                    write(connection, sql, queue, endOfData, failure, written, chunkBinder);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            for (ConnectionGate.Lease lease : leases) {
+                executor.execute(() -> {
+                    try (lease) {
+                        write(lease.connection(), sql, queue, endOfData, failure, written, chunkBinder);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+            }
+
+            if (sources.size() == 1) {
+                produce(sources.get(0), queue, failure);
+            } else {
+                int producerThreads = Math.max(1, Math.min(producers, sources.size()));
+                try (ExecutorService producerExecutor = Executors.newFixedThreadPool(producerThreads)) {
+                    for (Iterator<R> source : sources) {
+                        producerExecutor.execute(() -> produce(source, queue, failure));
+                    }
+                }
+            }
+            for (int i = 0; i < writers; i++) {
+                offer(queue, endOfData, failure);
+            }
+        }
+
+        Exception e = failure.get();
+        if (e instanceof SQLException sqlException) {
+            throw sqlException;
+        }
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e != null) {
+            throw new CsvDataLoaderException("Exception in csv load pipeline", e);
+        }
+
+        LOGGER.debug("pipeline wrote {} rows with {} connections in {}", written.get(), writers,
+                (System.currentTimeMillis() - start));
+        return written.get();
+    }
+
+    private void produce(Iterator<R> source, BlockingQueue<C> queue, AtomicReference<Exception> failure) {
+        try {
+            CsvLoadTracker tracker = batchController.tracker();
+            int chunkSize = batchController.batchSize();
+            C chunk = chunkFactory.apply(chunkSize);
+            long start = System.nanoTime();
+            while (source.hasNext() && failure.get() == null) {
+                chunk.add(source.next());
+                if (chunk.size() >= chunkSize) {
+                    tracker.recordsParsed(chunk.size(), System.nanoTime() - start);
+                    tracker.checkCancelled();
+                    offer(queue, chunk, failure);
+                    chunkSize = batchController.batchSize();
+                    chunk = chunkFactory.apply(chunkSize);
+                    start = System.nanoTime();
+                }
+            }
+            if (chunk.size() > 0) {
+                tracker.recordsParsed(chunk.size(), System.nanoTime() - start);
+                offer(queue, chunk, failure);
+            } else {
+                chunk.release();
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void offer(BlockingQueue<C> queue, C chunk, AtomicReference<Exception> failure) {
+        try {
+            while (failure.get() == null) {
+                if (queue.offer(chunk, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void write(Connection connection, String sql, BlockingQueue<C> queue, C endOfData,
+            AtomicReference<Exception> failure, AtomicLong written, ChunkBinder<C> chunkBinder)
+            throws SQLException, InterruptedException {
+
+        CsvLoadTracker tracker = batchController.tracker();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            long uncommitted = 0;
+            while (failure.get() == null) {
+                C chunk = queue.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    continue;
+                }
+                if (chunk == endOfData) {
+                    commit(connection, tracker);
+                    return;
+                }
+                long start = System.nanoTime();
+                BoundChunk bound;
+                try {
+                    bound = chunkBinder.bind(ps, chunk);
+                } finally {
+                    chunk.release();
+                }
+                long bindEnd = System.nanoTime();
+                tracker.converted(bindEnd - start);
+                ps.executeBatch();
+                batchController.batchExecuted(bound.rows(), bound.bytes(), System.nanoTime() - bindEnd);
+                written.addAndGet(bound.rows());
+                uncommitted += bound.rows();
+                if (batchController.isCommitDue(uncommitted)) {
+                    commit(connection, tracker);
+                    uncommitted = 0;
+                }
+            }
+            // another worker failed, restoring auto commit must not commit the rest
+            connection.rollback();
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void commit(Connection connection, CsvLoadTracker tracker) throws SQLException {
+        long start = System.nanoTime();
+        connection.commit();
+        tracker.committed(System.nanoTime() - start);
+    }
+}
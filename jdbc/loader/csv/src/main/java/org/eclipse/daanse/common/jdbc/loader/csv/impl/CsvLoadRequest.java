@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+
+import de.siegmar.fastcsv.reader.CsvRecord;
+
+/**
+ * Everything a {@link CsvBulkLoadStrategy} needs to load the data rows of one
+ * csv file into an already created table.
+ *
+ * @param path          the csv file
+ * @param table         the target table
+ * @param header        the field names of the header row
+ * @param columns       the column definitions of the typed header row
+ * @param records       the data records, positioned behind the typed header row
+ * @param wholeFile     true if the records are all data records of the file, so a
+ *                      strategy may read the file itself instead of the records
+ * @param tracker       collects the metrics of the load
+ * @param partition     the partition the records are loaded into, if the table is
+ *                      partitioned
+ * @param commit        true if the strategy commits the rows itself, possibly on
+ *                      several connections. false if the caller commits, the
+ *                      strategy loads all rows on the given connection in the
+ *                      open transaction of the caller.
+ * @param lineOffset    count of the lines of the file before the first line the
+ *                      records were read from, added to the line numbers of the
+ *                      records
+ * @param appendRejects true if the records continue an earlier load of the
+ *                      file, so the rejects are appended to the rejects file of
+ *                      that load instead of replacing it
+ */
+record CsvLoadRequest(Path path, TableReference table, List<String> header, List<ColumnDefinition> columns,
+        Iterator<CsvRecord> records, boolean wholeFile, CsvLoadTracker tracker, Optional<CsvPartition> partition,
+        boolean commit, long lineOffset, boolean appendRejects) {
+
+    CsvLoadRequest(Path path, TableReference table, List<String> header, List<ColumnDefinition> columns,
+            Iterator<CsvRecord> records, boolean wholeFile, CsvLoadTracker tracker) {
+        this(path, table, header, columns, records, wholeFile, tracker, Optional.empty(), true, 0, false);
+    }
+}
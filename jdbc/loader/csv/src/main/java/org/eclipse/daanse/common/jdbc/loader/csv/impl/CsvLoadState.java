@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+/**
+ * What is already loaded of a csv file.
+ *
+ * @param file           key of the file, relative to the base path
+ * @param byteOffset     position behind the last loaded record
+ * @param lineCount      count of loaded data records
+ * @param prefixChecksum checksum of the bytes up to {@code byteOffset}, see
+ *                       {@link CsvFileRange.Prefix#checksum}
+ */
+record CsvLoadState(String file, long byteOffset, long lineCount, long prefixChecksum) {
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnDefinitionR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnReferenceR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.CreateContainerSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.DeleteSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.InsertSqlStatementR;
+import org.eclipse.daanse.common.jdbc.db.record.sql.statement.SelectSqlStatementR;
+
+/**
+ * Stores the {@link CsvLoadState} of every incrementally loaded csv file in a
+ * control table of the database.
+ */
+final class CsvLoadStateRepository {
+
+    private static final ColumnReference FILE_PATH = new ColumnReferenceR("FILE_PATH");
+    private static final ColumnReference BYTE_OFFSET = new ColumnReferenceR("BYTE_OFFSET");
+    private static final ColumnReference LINE_COUNT = new ColumnReferenceR("LINE_COUNT");
+    private static final ColumnReference PREFIX_CHECKSUM = new ColumnReferenceR("PREFIX_CHECKSUM");
+
+    private static final List<ColumnReference> COLUMNS = List.of(FILE_PATH, BYTE_OFFSET, LINE_COUNT,
+            PREFIX_CHECKSUM);
+
+    private final SqlStatementGenerator sqlStatementGenerator;
+    private final TableReference stateTable;
+
+    private final String sqlSelect;
+    private final String sqlDelete;
+    private final String sqlInsert;
+
+    CsvLoadStateRepository(SqlStatementGenerator sqlStatementGenerator, TableReference stateTable) {
+        this.sqlStatementGenerator = sqlStatementGenerator;
+        this.stateTable = stateTable;
+        sqlSelect = sqlStatementGenerator
+                .getSqlOfStatement(new SelectSqlStatementR(stateTable, COLUMNS, List.of(FILE_PATH), List.of("?")));
+        sqlDelete = sqlStatementGenerator
+                .getSqlOfStatement(new DeleteSqlStatementR(stateTable, List.of(FILE_PATH), List.of("?")));
+        sqlInsert = sqlStatementGenerator.getSqlOfStatement(
+                new InsertSqlStatementR(stateTable, COLUMNS, COLUMNS.stream().map(c -> "?").toList()));
+    }
+
+    void createTable(Connection connection) throws SQLException {
+        List<ColumnDefinition> columns = List.of(
+                new ColumnDefinitionR(FILE_PATH,
+                        new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(1024), Optional.empty(), Optional.empty())),
+                column(BYTE_OFFSET), column(LINE_COUNT), column(PREFIX_CHECKSUM));
+        String sql = sqlStatementGenerator
+                .getSqlOfStatement(new CreateContainerSqlStatementR(stateTable, columns, true));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    Optional<CsvLoadState> read(Connection connection, String file) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sqlSelect)) {
+            ps.setString(1, file);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new CsvLoadState(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+            }
+        }
+    }
+
+    /**
+     * Replaces the state of the file. Without auto-commit the state is written in
+     * the open transaction of the caller, so it commits together with the loaded
+     * rows.
+     */
+    void write(Connection connection, CsvLoadState state) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (!autoCommit) {
+            insert(connection, state);
+            return;
+        }
+        connection.setAutoCommit(false);
+        try {
+            insert(connection, state);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void insert(Connection connection, CsvLoadState state) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sqlInsert)) {
+            delete(connection, state.file());
+            ps.setString(1, state.file());
+            ps.setLong(2, state.byteOffset());
+            ps.setLong(3, state.lineCount());
+            ps.setLong(4, state.prefixChecksum());
+            ps.executeUpdate();
+        }
+    }
+
+    void delete(Connection connection, String file) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sqlDelete)) {
+            ps.setString(1, file);
+            ps.executeUpdate();
+        }
+    }
+
+    private static ColumnDefinition column(ColumnReference column) {
+        return new ColumnDefinitionR(column,
+                new ColumnMetaDataR(JDBCType.BIGINT, Optional.empty(), Optional.empty(), Optional.empty()));
+    }
+}
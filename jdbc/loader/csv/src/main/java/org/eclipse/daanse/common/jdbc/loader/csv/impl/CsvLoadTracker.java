@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvFileLoadMetrics;
+
+/**
+ * Collects the {@link CsvFileLoadMetrics} of one load of one file. The
+ * counters are updated by the parser and writer threads of the load and read
+ * concurrently by the metrics service.
+ */
+final class CsvLoadTracker implements CsvFileLoadMetrics {
+
+    /** weight of the latest batch in the recent rates */
+    private static final double RATE_WEIGHT = 0.2;
+
+    private static final long[] BOUNDS_NANOS = BATCH_LATENCY_BOUNDS_MILLIS.stream()
+            .mapToLong(TimeUnit.MILLISECONDS::toNanos).toArray();
+
+    private final String file;
+    private final Instant started = Instant.now();
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder rowsParsed = new LongAdder();
+    private final LongAdder rowsInserted = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder databaseNanos = new LongAdder();
+    private final AtomicLongArray batchLatencies = new AtomicLongArray(BOUNDS_NANOS.length + 1);
+
+    private volatile long totalBytes;
+    private volatile State state = State.RUNNING;
+    private volatile Instant finished;
+    private volatile long finishedNanos;
+    private volatile String failure;
+    private volatile boolean cancelRequested;
+    private volatile String strategy;
+
+    private long lastBatchNanos = startNanos;
+    private double recentRowsPerSecond;
+    private double recentBytesPerSecond;
+
+    /**
+     * @param file       the file, relative to the base path
+     * @param totalBytes the csv bytes to load, negative if unknown
+     */
+    CsvLoadTracker(String file, long totalBytes) {
+        this.file = file;
+        this.totalBytes = totalBytes;
+    }
+
+    void totalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    void recordsParsed(long rows, long nanos) {
+        rowsParsed.add(rows);
+        parseNanos.add(nanos);
+    }
+
+    void converted(long nanos) {
+        parseNanos.add(nanos);
+    }
+
+    void parseError() {
+        parseErrors.increment();
+    }
+
+    void batchExecuted(long rows, long bytes, long nanos) {
+        rowsInserted.add(rows);
+        bytesRead.add(bytes);
+        databaseNanos.add(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        batchLatencies.incrementAndGet(bucket);
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            double seconds = Math.max(1, now - lastBatchNanos) / 1e9;
+            lastBatchNanos = now;
+            recentRowsPerSecond = recent(recentRowsPerSecond, rows / seconds);
+            recentBytesPerSecond = recent(recentBytesPerSecond, bytes / seconds);
+        }
+    }
+
+    void committed(long nanos) {
+        databaseNanos.add(nanos);
+    }
+
+    /**
+     * Reports the rows a strategy has loaded, as parsed rows if the strategy did
+     * not report its parsed rows.
+     */
+    void loaded(long rows) {
+        long missing = rows - rowsParsed.sum();
+        if (missing > 0) {
+            rowsParsed.add(missing);
+        }
+    }
+
+    void strategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Requests the load to stop at the next batch.
+     */
+    void cancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Called by the load between batches.
+     *
+     * @throws CsvLoadCancelledException if the load was cancelled
+     */
+    void checkCancelled() {
+        if (cancelRequested) {
+            throw new CsvLoadCancelledException("Load of " + file + " cancelled");
+        }
+    }
+
+    void finish() {
+        end(State.FINISHED);
+    }
+
+    void fail(Exception e) {
+        failure = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        end(State.FAILED);
+    }
+
+    void cancelled() {
+        end(State.CANCELLED);
+    }
+
+    private void end(State endState) {
+        finishedNanos = System.nanoTime();
+        finished = Instant.now();
+        state = endState;
+    }
+
+    private static double recent(double rate, double latest) {
+        return rate == 0 ? latest : (1 - RATE_WEIGHT) * rate + RATE_WEIGHT * latest;
+    }
+
+    @Override
+    public String file() {
+        return file;
+    }
+
+    @Override
+    public State state() {
+        return state;
+    }
+
+    @Override
+    public Instant started() {
+        return started;
+    }
+
+    @Override
+    public Optional<Instant> finished() {
+        return Optional.ofNullable(finished);
+    }
+
+    @Override
+    public Optional<String> failure() {
+        return Optional.ofNullable(failure);
+    }
+
+    @Override
+    public Optional<String> strategy() {
+        return Optional.ofNullable(strategy);
+    }
+
+    @Override
+    public long rowsParsed() {
+        return rowsParsed.sum();
+    }
+
+    @Override
+    public long rowsInserted() {
+        return rowsInserted.sum();
+    }
+
+    @Override
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public OptionalLong totalBytes() {
+        long total = totalBytes;
+        return total < 0 ? OptionalLong.empty() : OptionalLong.of(total);
+    }
+
+    @Override
+    public long parseErrors() {
+        return parseErrors.sum();
+    }
+
+    @Override
+    public Duration parseTime() {
+        return Duration.ofNanos(parseNanos.sum());
+    }
+
+    @Override
+    public Duration databaseTime() {
+        return Duration.ofNanos(databaseNanos.sum());
+    }
+
+    @Override
+    public long[] batchLatencyHistogram() {
+        long[] histogram = new long[batchLatencies.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = batchLatencies.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public double rowsPerSecond() {
+        if (state == State.RUNNING) {
+            synchronized (this) {
+                return recentRowsPerSecond;
+            }
+        }
+        return rowsInserted() / elapsedSeconds();
+    }
+
+    @Override
+    public double bytesPerSecond() {
+        if (state == State.RUNNING) {
+            synchronized (this) {
+                return recentBytesPerSecond;
+            }
+        }
+        return bytesRead() / elapsedSeconds();
+    }
+
+    @Override
+    public Optional<Duration> eta() {
+        long total = totalBytes;
+        double bytesPerSecond = bytesPerSecond();
+        if (state != State.RUNNING || total < 0 || bytesPerSecond <= 0) {
+            return Optional.empty();
+        }
+        long remaining = Math.max(0, total - bytesRead());
+        return Optional.of(Duration.ofMillis((long) (remaining / bytesPerSecond * 1000)));
+    }
+
+    private double elapsedSeconds() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedNanos;
+        return Math.max(1, end - startNanos) / 1e9;
+    }
+}
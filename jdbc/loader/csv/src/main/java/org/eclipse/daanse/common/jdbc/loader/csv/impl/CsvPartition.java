@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnReference;
+
+/**
+ * The partition of a table one csv file is loaded into. Files whose name
+ * without extension matches the partition pattern are loaded into the table of
+ * the {@value #GROUP_TABLE} group of the pattern, every row gets the value of
+ * the {@value #GROUP_PARTITION} group in the partition column. For example the
+ * pattern {@code (?<table>.+)_(?<partition>\d{4}-\d{2}-\d{2})} loads
+ * {@code sales_2026-10-01.csv} into the partition {@code 2026-10-01} of the
+ * table {@code sales}.
+ *
+ * @param table  name of the table
+ * @param column the partition column
+ * @param value  the partition key of the file
+ */
+record CsvPartition(String table, ColumnReference column, String value) {
+
+    static final String GROUP_TABLE = "table";
+    static final String GROUP_PARTITION = "partition";
+
+    /**
+     * @return the partition pattern, null if the pattern is blank
+     */
+    static Pattern compile(String partitionPattern) {
+        if (partitionPattern == null || partitionPattern.isBlank()) {
+            return null;
+        }
+        Pattern pattern = Pattern.compile(partitionPattern);
+        if (!pattern.namedGroups().containsKey(GROUP_TABLE) || !pattern.namedGroups().containsKey(GROUP_PARTITION)) {
+            throw new IllegalArgumentException("Partition pattern " + partitionPattern + " needs the groups "
+                    + GROUP_TABLE + " and " + GROUP_PARTITION);
+        }
+        return pattern;
+    }
+
+    static Optional<CsvPartition> of(Pattern pattern, ColumnReference column, String baseName) {
+        if (pattern == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = pattern.matcher(baseName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(new CsvPartition(matcher.group(GROUP_TABLE), column, matcher.group(GROUP_PARTITION)));
+    }
+
+    /**
+     * @return the partition key as SQL string literal
+     */
+    String literal() {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.siegmar.fastcsv.writer.CsvWriter;
+
+/**
+ * Writes the rows of a tolerant load, that could not be converted, with line
+ * number and reason into a {@value #REJECTS_EXTENSION} file beside the csv
+ * file. The load is aborted as soon as more rows are rejected than allowed.
+ * Writers of a {@link CsvLoadPipeline} share one reject writer.
+ */
+final class CsvRejectWriter implements Closeable {
+
+    static final String REJECTS_EXTENSION = ".rejects.csv";
+
+    static final String EXCEPTION_TOO_MANY_REJECTED_ROWS = "Too many rejected rows, load aborted after %d rows - %s";
+
+    private static final String UNKNOWN_LINE = "";
+
+    private final Path path;
+    private final boolean append;
+    private final long maxRejectedRows;
+    private final CsvLoadTracker tracker;
+
+    private CsvWriter writer;
+    private long rejectedRows;
+
+    /**
+     * @param csvFile         the loaded csv file
+     * @param append          true to keep the rejects of earlier loads of an
+     *                        incremental load
+     * @param maxRejectedRows count of rows that may be rejected, negative for
+     *                        no limit
+     */
+    CsvRejectWriter(Path csvFile, boolean append, long maxRejectedRows, CsvLoadTracker tracker) throws IOException {
+        this.path = rejectsPath(csvFile);
+        this.append = append;
+        this.maxRejectedRows = maxRejectedRows;
+        this.tracker = tracker;
+        if (!append) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    static Path rejectsPath(Path csvFile) {
+        String fileName = csvFile.getFileName().toString();
+        String baseName = CsvCompression.of(csvFile).map(c -> c.baseName(fileName)).orElse(fileName);
+        return csvFile.resolveSibling(baseName + REJECTS_EXTENSION);
+    }
+
+    /**
+     * Writes the rejected row.
+     *
+     * @param line   line number of the row in the csv file, negative if unknown
+     * @param fields the fields of the row
+     * @param reason the conversion failure
+     * @throws CsvDataLoaderException if more rows are rejected than allowed
+     */
+    synchronized void reject(long line, List<String> fields, Exception reason) {
+        tracker.parseError();
+        rejectedRows++;
+        if (maxRejectedRows >= 0 && rejectedRows > maxRejectedRows) {
+            throw new CsvDataLoaderException(String.format(EXCEPTION_TOO_MANY_REJECTED_ROWS, maxRejectedRows, path),
+                    reason);
+        }
+        try {
+            if (writer == null) {
+                writer = append
+                        ? CsvWriter.builder().build(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                                StandardOpenOption.APPEND)
+                        : CsvWriter.builder().build(path, StandardCharsets.UTF_8);
+            }
+            List<String> row = new ArrayList<>(fields.size() + 2);
+            row.add(line < 0 ? UNKNOWN_LINE : Long.toString(line));
+            row.add(reason(reason));
+            row.addAll(fields);
+            writer.writeRecord(row);
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while writing rejected row", e);
+        }
+    }
+
+    synchronized long rejectedRows() {
+        return rejectedRows;
+    }
+
+    private static String reason(Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Debounces and coalesces the events of the watcher per file. A file that is
+ * copied in chunks fires many events, its reload starts only after size and
+ * modification time were unchanged for the quiet period. An event cancels the
+ * reload of the same file that is still running, and all tasks of one file run
+ * one after the other, so there is exactly one reload per settled change.
+ */
+final class CsvReloadScheduler implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvReloadScheduler.class);
+
+    private static final FileState MISSING = new FileState(-1, -1);
+
+    private final long quietPeriodMillis;
+    private final Executor executor;
+    private final Consumer<Path> cancel;
+    private final ScheduledExecutorService timer;
+
+    /** only used on the thread of the timer */
+    private final Map<Path, Pending> pending = new HashMap<>();
+    private final Map<Path, CompletableFuture<Void>> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * @param quietPeriodMillis time the file must be unchanged before it is
+     *                          reloaded
+     * @param executor          runs the reloads
+     * @param cancel            cancels the running reload of a file
+     */
+    CsvReloadScheduler(long quietPeriodMillis, Executor executor, Consumer<Path> cancel) {
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.executor = executor;
+        this.cancel = cancel;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "csv-reload-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The file was created or modified. Its reload runs when the file is quiet.
+     */
+    void changed(Path path, Runnable reload) {
+        cancel.accept(path);
+        timer.execute(() -> {
+            dropPending(path);
+            schedule(path, fileState(path), reload);
+        });
+    }
+
+    /**
+     * The file was deleted. A pending reload is dropped and the delete runs
+     * right after the running task of the file.
+     */
+    void deleted(Path path, Runnable delete) {
+        cancel.accept(path);
+        timer.execute(() -> {
+            dropPending(path);
+            submit(path, delete);
+        });
+    }
+
+    private void dropPending(Path path) {
+        Pending old = pending.remove(path);
+        if (old != null) {
+            old.check().cancel(false);
+        }
+    }
+
+    private void schedule(Path path, FileState state, Runnable reload) {
+        ScheduledFuture<?> check = timer.schedule(() -> check(path, state, reload), quietPeriodMillis,
+                TimeUnit.MILLISECONDS);
+        pending.put(path, new Pending(state, check));
+    }
+
+    private void check(Path path, FileState scheduled, Runnable reload) {
+        FileState state = fileState(path);
+        if (!state.equals(scheduled)) {
+            LOGGER.debug("File {} still changes", path);
+            schedule(path, state, reload);
+            return;
+        }
+        pending.remove(path);
+        submit(path, reload);
+    }
+
+    private void submit(Path path, Runnable task) {
+        CompletableFuture<Void> next = tasks.compute(path,
+                (p, previous) -> previous == null ? CompletableFuture.runAsync(() -> run(p, task), executor)
+                        : previous.exceptionally(e -> null).thenRunAsync(() -> run(p, task), executor));
+        next.whenComplete((r, e) -> tasks.remove(path, next));
+    }
+
+    private static void run(Path path, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.error("Exception while reload of {}", path, e);
+        }
+    }
+
+    private static FileState fileState(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private record FileState(long size, long lastModified) {
+    }
+
+    private record Pending(FileState state, ScheduledFuture<?> check) {
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+
+/**
+ * {@link CsvLoadPipeline.Chunk} that stages the records in a columnar layout
+ * instead of keeping them. The producer converts numbers, booleans, dates,
+ * times and timestamps to primitives in direct buffers, so the parsed records
+ * and the values parsed from them die young and are not held in the queue of
+ * the pipeline. Only the strings of text columns are kept. The writer binds
+ * the primitives straight to the {@link PreparedStatement}. Stagings are
+ * reused through their {@link Pool}.
+ * <p>
+ * Every cell has a slot of 8 bytes and a flag. The slot holds the primitive
+ * value, a date as epoch day, a time as nano of day and a timestamp as epoch
+ * nanos of its local date time. A timestamp outside of the range of epoch
+ * nanos is kept as text like the fields of text columns.
+ *
+ * @param <R> type of the parsed csv record
+ */
+final class CsvRowStaging<R> implements CsvLoadPipeline.Chunk<R> {
+
+    private static final byte VALUE = 0;
+    private static final byte NULL = 1;
+    private static final byte TEXT = 2;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Reads the field of a record for a column, null if the record has none.
+     */
+    @FunctionalInterface
+    interface FieldAccess<R> {
+
+        String field(R record, int column);
+    }
+
+    private enum Kind {
+        BOOLEAN, SHORT, INT, LONG, DOUBLE, DATE, TIME, TIMESTAMP, TEXT;
+
+        static Kind of(JDBCType type) {
+            return switch (type) {
+            case BOOLEAN -> BOOLEAN;
+            case SMALLINT -> SHORT;
+            case INTEGER -> INT;
+            case BIGINT -> LONG;
+            case DECIMAL, NUMERIC, REAL -> DOUBLE;
+            case DATE -> DATE;
+            case TIME -> TIME;
+            case TIMESTAMP -> TIMESTAMP;
+            default -> TEXT;
+            };
+        }
+    }
+
+    /**
+     * Hands out stagings for the columns of one load and takes them back when
+     * their batch is bound.
+     */
+    static final class Pool<R> {
+
+        private final Kind[] kinds;
+        private final int[] sqlTypes;
+        private final String nullValue;
+        private final FieldAccess<R> access;
+        private final CsvLoadTracker tracker;
+        private final Queue<CsvRowStaging<R>> free = new ConcurrentLinkedQueue<>();
+
+        Pool(List<ColumnDefinition> columns, String nullValue, CsvLoadTracker tracker, FieldAccess<R> access) {
+            int count = columns.size();
+            this.kinds = new Kind[count];
+            this.sqlTypes = new int[count];
+            this.nullValue = nullValue;
+            this.access = access;
+            this.tracker = tracker;
+            for (int i = 0; i < count; i++) {
+                JDBCType type = columns.get(i).columnType().dataType();
+                kinds[i] = Kind.of(type);
+                sqlTypes[i] = type.getVendorTypeNumber();
+            }
+        }
+
+        /**
+         * @return an empty staging for at least {@code capacity} records
+         */
+        CsvRowStaging<R> take(int capacity) {
+            if (capacity == 0) {
+                return new CsvRowStaging<>(this, 0);
+            }
+            CsvRowStaging<R> staging = free.poll();
+            if (staging == null || staging.capacity < capacity) {
+                staging = new CsvRowStaging<>(this, capacity);
+            }
+            return staging;
+        }
+
+        private void release(CsvRowStaging<R> staging) {
+            Arrays.fill(staging.texts, 0, staging.size * staging.columns, null);
+            staging.size = 0;
+            staging.bytes = 0;
+            free.offer(staging);
+        }
+    }
+
+    private final Pool<R> pool;
+    private final int capacity;
+    private final int columns;
+    private final ByteBuffer slots;
+    private final ByteBuffer flags;
+    private final String[] texts;
+    private int size;
+    private long bytes;
+
+    private CsvRowStaging(Pool<R> pool, int capacity) {
+        this.pool = pool;
+        this.capacity = capacity;
+        this.columns = pool.kinds.length;
+        this.slots = ByteBuffer.allocateDirect(capacity * columns * Long.BYTES);
+        this.flags = ByteBuffer.allocateDirect(capacity * columns);
+        this.texts = new String[capacity * columns];
+    }
+
+    @Override
+    public void add(R record) {
+        int row = size;
+        long recordBytes = 0;
+        try {
+            for (int c = 0; c < columns; c++) {
+                String field = pool.access.field(record, c);
+                int cell = row * columns + c;
+                recordBytes += CsvLoadPipeline.fieldBytes(field);
+                if (field == null || field.equals(pool.nullValue)) {
+                    flags.put(cell, NULL);
+                } else if (pool.kinds[c] == Kind.TEXT || !stage(cell, pool.kinds[c], field)) {
+                    flags.put(cell, TEXT);
+                    texts[cell] = field;
+                } else {
+                    flags.put(cell, VALUE);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            pool.tracker.parseError();
+            throw new CsvDataLoaderException(
+                    BatchInsertCsvBulkLoadStrategy.EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT, e);
+        }
+        size++;
+        bytes += recordBytes;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void release() {
+        pool.release(this);
+    }
+
+    /**
+     * Binds all staged records into the batch of the statement.
+     */
+    CsvLoadPipeline.BoundChunk bind(PreparedStatement ps) throws SQLException {
+        try {
+            for (int row = 0; row < size; row++) {
+                for (int c = 0; c < columns; c++) {
+                    int cell = row * columns + c;
+                    int index = c + 1;
+                    byte flag = flags.get(cell);
+                    if (flag == NULL) {
+                        ps.setNull(index, pool.sqlTypes[c]);
+                    } else if (flag == TEXT) {
+                        bindText(ps, index, pool.kinds[c], texts[cell]);
+                    } else {
+                        bindValue(ps, index, pool.kinds[c], slots.getLong(cell * Long.BYTES));
+                    }
+                }
+                ps.addBatch();
+                ps.clearParameters();
+            }
+        } catch (IllegalArgumentException e) {
+            pool.tracker.parseError();
+            throw new CsvDataLoaderException(
+                    BatchInsertCsvBulkLoadStrategy.EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT, e);
+        }
+        return new CsvLoadPipeline.BoundChunk(size, bytes);
+    }
+
+    /**
+     * Writes the field to the slot of the cell, parsed like the
+     * {@link CsvFieldBinder} of the column parses it.
+     *
+     * @return false if the field does not fit a slot and is kept as text
+     */
+    private boolean stage(int cell, Kind kind, String field) {
+        long slot;
+        switch (kind) {
+        case BOOLEAN -> slot = Boolean.parseBoolean(field) ? 1 : 0;
+        case SHORT -> slot = field.isEmpty() ? 0 : Short.parseShort(field);
+        case INT -> slot = field.isEmpty() ? 0 : Integer.parseInt(field);
+        case LONG -> slot = field.isEmpty() ? 0 : Long.parseLong(field);
+        case DOUBLE -> slot = Double.doubleToRawLongBits(field.isEmpty() ? 0.0 : Double.parseDouble(field));
+        case DATE -> slot = Date.valueOf(field).toLocalDate().toEpochDay();
+        case TIME -> slot = Time.valueOf(field).toLocalTime().toNanoOfDay();
+        case TIMESTAMP -> {
+            LocalDateTime timestamp = Timestamp.valueOf(field).toLocalDateTime();
+            try {
+                slot = Math.addExact(
+                        Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND),
+                        timestamp.getNano());
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+        default -> {
+            return false;
+        }
+        }
+        slots.putLong(cell * Long.BYTES, slot);
+        return true;
+    }
+
+    private static void bindValue(PreparedStatement ps, int index, Kind kind, long slot) throws SQLException {
+        switch (kind) {
+        case BOOLEAN -> ps.setBoolean(index, slot != 0);
+        case SHORT -> ps.setShort(index, (short) slot);
+        case INT -> ps.setInt(index, (int) slot);
+        case LONG -> ps.setLong(index, slot);
+        case DOUBLE -> ps.setDouble(index, Double.longBitsToDouble(slot));
+        case DATE -> ps.setDate(index, Date.valueOf(LocalDate.ofEpochDay(slot)));
+        case TIME -> ps.setTime(index, Time.valueOf(LocalTime.ofNanoOfDay(slot)));
+        case TIMESTAMP -> ps.setTimestamp(index, Timestamp.valueOf(LocalDateTime.ofEpochSecond(
+                Math.floorDiv(slot, NANOS_PER_SECOND), (int) Math.floorMod(slot, NANOS_PER_SECOND), ZoneOffset.UTC)));
+        case TEXT -> throw new IllegalStateException("text is not staged in a slot");
+        }
+    }
+
+    private static void bindText(PreparedStatement ps, int index, Kind kind, String text) throws SQLException {
+        if (kind == Kind.TIMESTAMP) {
+            ps.setTimestamp(index, Timestamp.valueOf(text));
+        } else {
+            ps.setString(index, text);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.ColumnMetaDataR;
+
+import de.siegmar.fastcsv.reader.CsvRecord;
+
+/**
+ * Infers the narrowest {@link JDBCType} with size and scale of every column
+ * from a sample of records. A value only narrows a column if the
+ * {@link CsvFieldBinder} of the inferred type is able to bind it. Null values
+ * do not restrict a column. Empty fields only rule out the temporal types,
+ * their binders are not able to bind an empty field.
+ */
+final class CsvTypeInference {
+
+    private final String nullValue;
+    private final List<Column> columns = new ArrayList<>();
+
+    CsvTypeInference(String nullValue) {
+        this.nullValue = nullValue;
+    }
+
+    void accept(CsvRecord csvRecord) {
+        for (int i = 0; i < csvRecord.getFieldCount(); i++) {
+            if (i == columns.size()) {
+                columns.add(new Column());
+            }
+            String value = csvRecord.getField(i);
+            if (value.equals(nullValue)) {
+                continue;
+            }
+            if (value.isEmpty()) {
+                columns.get(i).acceptEmpty();
+            } else {
+                columns.get(i).accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return count of columns of the widest sampled record
+     */
+    int columnCount() {
+        return columns.size();
+    }
+
+    /**
+     * @return the inferred types of the first {@code columnCount} columns
+     */
+    List<ColumnMetaDataR> result(int columnCount) {
+        List<ColumnMetaDataR> result = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            result.add(i < columns.size() ? columns.get(i).type() : Column.varchar(1));
+        }
+        return result;
+    }
+
+    private static final class Column {
+
+        private boolean seen;
+        private boolean isBoolean = true;
+        private boolean isShort = true;
+        private boolean isInt = true;
+        private boolean isLong = true;
+        private boolean isDecimal = true;
+        private boolean isDate = true;
+        private boolean isTime = true;
+        private boolean isTimestamp = true;
+        private int maxLength;
+        private int maxIntegerDigits;
+        private int maxScale;
+
+        void accept(String value) {
+            seen = true;
+            maxLength = Math.max(maxLength, value.length());
+            if (isBoolean) {
+                isBoolean = "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+            }
+            if (isLong) {
+                acceptLong(value);
+            }
+            if (isDecimal) {
+                acceptDecimal(value);
+            }
+            if (isDate) {
+                isDate = parses(() -> Date.valueOf(value));
+            }
+            if (isTime) {
+                isTime = parses(() -> Time.valueOf(value));
+            }
+            if (isTimestamp) {
+                isTimestamp = parses(() -> Timestamp.valueOf(value));
+            }
+        }
+
+        void acceptEmpty() {
+            isDate = false;
+            isTime = false;
+            isTimestamp = false;
+        }
+
+        private void acceptLong(String value) {
+            try {
+                long l = Long.parseLong(value);
+                isShort &= l >= Short.MIN_VALUE && l <= Short.MAX_VALUE;
+                isInt &= l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE;
+            } catch (NumberFormatException e) {
+                isShort = false;
+                isInt = false;
+                isLong = false;
+            }
+        }
+
+        private void acceptDecimal(String value) {
+            try {
+                BigDecimal d = new BigDecimal(value);
+                int scale = Math.max(0, d.scale());
+                maxScale = Math.max(maxScale, scale);
+                maxIntegerDigits = Math.max(maxIntegerDigits, Math.max(1, d.precision() - d.scale()));
+            } catch (NumberFormatException e) {
+                isDecimal = false;
+            }
+        }
+
+        ColumnMetaDataR type() {
+            if (!seen) {
+                return varchar(1);
+            }
+            if (isBoolean) {
+                return of(JDBCType.BOOLEAN);
+            }
+            if (isShort) {
+                return of(JDBCType.SMALLINT);
+            }
+            if (isInt) {
+                return of(JDBCType.INTEGER);
+            }
+            if (isLong) {
+                return of(JDBCType.BIGINT);
+            }
+            if (isDecimal) {
+                return new ColumnMetaDataR(JDBCType.DECIMAL, Optional.of(maxIntegerDigits + maxScale),
+                        Optional.of(maxScale), Optional.empty());
+            }
+            if (isDate) {
+                return of(JDBCType.DATE);
+            }
+            if (isTime) {
+                return of(JDBCType.TIME);
+            }
+            if (isTimestamp) {
+                return of(JDBCType.TIMESTAMP);
+            }
+            return varchar(maxLength);
+        }
+
+        private static ColumnMetaDataR of(JDBCType type) {
+            return new ColumnMetaDataR(type, Optional.empty(), Optional.empty(), Optional.empty());
+        }
+
+        static ColumnMetaDataR varchar(int length) {
+            return new ColumnMetaDataR(JDBCType.VARCHAR, Optional.of(length), Optional.empty(), Optional.empty());
+        }
+
+        private static boolean parses(Runnable parser) {
+            try {
+                parser.run();
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.daanse.common.jdbc.db.api.sql.ColumnDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CsvBulkLoadStrategy} for H2 that lets the database read the csv file
+ * itself with the {@code CSVREAD} table function and loads it with one
+ * {@code INSERT INTO ... SELECT} statement, so no record crosses the JDBC
+ * boundary.
+ *
+ * The database must be able to read the file, so the strategy declines remote
+ * (tcp/ssl) connections and files outside of the default file system. The user
+ * of the connection needs admin rights to call {@code CSVREAD}.
+ * <p>
+ * {@code CSVREAD} does not fail on records with a different field count and
+ * has no option to keep empty lines, so the strategy declines these settings.
+ * It reads an unquoted empty field and a field of blanks as NULL, like a
+ * missing field. The batch inserts bind an empty field as 0, false or empty
+ * text instead. Only a quoted empty field is converted the same way.
+ */
+final class H2CsvReadBulkLoadStrategy implements CsvBulkLoadStrategy {
+
+    static final String NAME = "h2CsvRead";
+
+    static final String DATABASE_PRODUCT_NAME = "H2";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(H2CsvReadBulkLoadStrategy.class);
+
+    private final CsvDataLoaderConfig config;
+    private final String quoteString;
+
+    H2CsvReadBulkLoadStrategy(CsvDataLoaderConfig config, String quoteString) {
+        this.config = config;
+        this.quoteString = quoteString;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canLoad(Connection connection, CsvLoadRequest request) throws SQLException {
+        // the database would abort on the first malformed value
+        if (!request.wholeFile() || !request.commit() || config.maxRejectedRows() != 0
+                || !config.skipEmptyLines() || !config.ignoreDifferentFieldCount()
+                || request.partition().isPresent()
+                || request.path().getFileSystem() != FileSystems.getDefault()
+                || CsvCompression.of(request.path()).orElse(null) != CsvCompression.NONE) {
+            return false;
+        }
+        String url = connection.getMetaData().getURL();
+        if (url == null || url.startsWith("jdbc:h2:tcp:") || url.startsWith("jdbc:h2:ssl:")) {
+            return false;
+        }
+        // csvOptions are separated by spaces
+        return isOption(config.fieldSeparator()) && isOption(config.quoteCharacter()) && !config.nullValue().isEmpty()
+                && config.nullValue().chars().allMatch(c -> isOption((char) c));
+    }
+
+    @Override
+    public long load(Connection connection, CsvLoadRequest request) throws SQLException {
+        String sql = getSql(request);
+        LOGGER.debug("bulk load {}", sql);
+
+        long start = System.nanoTime();
+        try (Statement stmt = connection.createStatement()) {
+            long count = stmt.executeLargeUpdate(sql);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            long nanos = System.nanoTime() - start;
+            // the database reads, parses and inserts in one statement
+            request.tracker().batchExecuted(count, request.path().toFile().length(), nanos);
+            LOGGER.debug("bulk load of {} rows time {}", count, TimeUnit.NANOSECONDS.toMillis(nanos));
+            return count;
+        }
+    }
+
+    String getSql(CsvLoadRequest request) {
+        StringBuilder sb = new StringBuilder(200);
+        sb.append("INSERT INTO ");
+        request.table().schema().ifPresent(schema -> {
+            quoteIdentifier(sb, schema.name());
+            sb.append(".");
+        });
+        quoteIdentifier(sb, request.table().name());
+        sb.append("(");
+        boolean first = true;
+        for (ColumnDefinition column : request.columns()) {
+            if (first) {
+                first = false;
+            } else {
+                sb.append(", ");
+            }
+            quoteIdentifier(sb, column.column().name());
+        }
+        sb.append(") SELECT ");
+        first = true;
+        for (ColumnDefinition column : request.columns()) {
+            if (first) {
+                first = false;
+            } else {
+                sb.append(", ");
+            }
+            appendValue(sb, column);
+        }
+        sb.append(" FROM CSVREAD(");
+        appendLiteral(sb, request.path().toAbsolutePath().toString());
+        sb.append(", ");
+        if (config.headerRow()) {
+            sb.append("NULL");
+        } else {
+            // the given column names make the first row a data row
+            appendLiteral(sb, String.join(",", request.header()));
+        }
+        sb.append(", ");
+        appendLiteral(sb, getCsvOptions());
+        sb.append(")");
+        if (config.typesRow()) {
+            sb.append(" OFFSET 1 ROWS");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Same conversion of quoted empty fields as the {@link CsvFieldBinder}s.
+     */
+    private void appendValue(StringBuilder sb, ColumnDefinition column) {
+        StringBuilder field = new StringBuilder();
+        quoteIdentifier(field, column.column().name());
+        switch (column.columnType().dataType()) {
+        case BIGINT, INTEGER, SMALLINT, DECIMAL, NUMERIC, REAL:
+            sb.append("CASE WHEN ").append(field).append(" = '' THEN '0' ELSE ").append(field).append(" END");
+            break;
+        case BOOLEAN:
+            sb.append("CASE WHEN ").append(field).append(" IS NULL THEN NULL WHEN LOWER(").append(field)
+                    .append(") = 'true' THEN TRUE ELSE FALSE END");
+            break;
+        default:
+            sb.append(field);
+        }
+    }
+
+    private String getCsvOptions() {
+        return new StringBuilder(100).append("charset=").append(Charset.forName(config.encoding()).name())
+                .append(" fieldSeparator=").append(config.fieldSeparator()).append(" fieldDelimiter=")
+                .append(config.quoteCharacter()).append(" escape=").append(config.quoteCharacter()).append(" null=")
+                .append(config.nullValue()).append(" preserveWhitespace=true caseSensitiveColumnNames=true").toString();
+    }
+
+    private void quoteIdentifier(StringBuilder sb, String identifier) {
+        sb.append(quoteString);
+        sb.append(identifier.replace(quoteString, quoteString + quoteString));
+        sb.append(quoteString);
+    }
+
+    private static void appendLiteral(StringBuilder sb, String value) {
+        sb.append("'").append(value.replace("'", "''")).append("'");
+    }
+
+    private static boolean isOption(char c) {
+        return !Character.isWhitespace(c) && c != '\\' && c != '=';
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.daanse.common.jdbc.db.api.SqlStatementGenerator;
+
+/**
+ * {@link CsvBulkLoadStrategy} for large local files. The file is read with a
+ * {@link MappedCsvReader}, its segments are parsed by several threads and fed
+ * into one {@link CsvLoadPipeline}.
+ */
+final class MappedCsvBulkLoadStrategy implements CsvBulkLoadStrategy {
+
+    static final String NAME = "mappedRead";
+
+    private final ConnectionGate connectionGate;
+    private final CsvDataLoaderConfig config;
+    private final Charset charset;
+    private final SqlStatementGenerator sqlStatementGenerator;
+
+    MappedCsvBulkLoadStrategy(ConnectionGate connectionGate, CsvDataLoaderConfig config,
+            SqlStatementGenerator sqlStatementGenerator) {
+        this.connectionGate = connectionGate;
+        this.config = config;
+        this.charset = Charset.forName(config.encoding());
+        this.sqlStatementGenerator = sqlStatementGenerator;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canLoad(Connection connection, CsvLoadRequest request) {
+        // tolerant loads need the line numbers of the records, the pipeline
+        // commits on several connections. The reader does not check the field
+        // count of the records, so files with strict field count are parsed by
+        // the csv parser.
+        return request.wholeFile() && request.commit() && config.maxRejectedRows() == 0
+                && config.ignoreDifferentFieldCount()
+                && request.path().getFileSystem() == FileSystems.getDefault()
+                && CsvCompression.of(request.path()).orElse(null) == CsvCompression.NONE
+                && CsvFileRange.isAsciiCompatible(charset)
+                && MappedCsvReader.isSingleByte(config.fieldSeparator())
+                && MappedCsvReader.isSingleByte(config.quoteCharacter());
+    }
+
+    @Override
+    public long load(Connection connection, CsvLoadRequest request) throws SQLException {
+        int[] positions = BatchInsertCsvBulkLoadStrategy.getColumnPositions(request.header(), request.columns());
+        int[] fieldColumns = new int[Arrays.stream(positions).max().orElse(-1) + 1];
+        Arrays.fill(fieldColumns, -1);
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] >= 0) {
+                fieldColumns[positions[i]] = i;
+            }
+        }
+        CsvFieldBinder[] binders = CsvFieldBinder.compile(request.columns(), config.nullValue());
+        String sql = BatchInsertCsvBulkLoadStrategy.getInsertSql(sqlStatementGenerator, request);
+        int headerRecords = (config.headerRow() ? 1 : 0) + (config.typesRow() ? 1 : 0);
+
+        try (FileChannel channel = FileChannel.open(request.path(), StandardOpenOption.READ)) {
+            MappedCsvReader reader = new MappedCsvReader(channel, charset, config.fieldSeparator(),
+                    config.quoteCharacter(), config.skipEmptyLines());
+            List<Iterator<String[]>> segments = reader.segments(reader.skipRecords(headerRecords),
+                    config.parseThreads(), fieldColumns, binders.length);
+
+            AdaptiveBatchController batchController = new AdaptiveBatchController(config, request.tracker());
+            if (config.offHeapStaging()) {
+                CsvRowStaging.Pool<String[]> pool = new CsvRowStaging.Pool<>(request.columns(), config.nullValue(),
+                        request.tracker(), (values, column) -> values[column]);
+                CsvLoadPipeline<String[], CsvRowStaging<String[]>> pipeline = new CsvLoadPipeline<>(connectionGate,
+                        config.writerConnections(), config.pipelineQueueCapacity(), batchController, pool::take);
+                return pipeline.run(connection, sql, segments, config.parseThreads(), (ps, chunk) -> chunk.bind(ps));
+            }
+            CsvLoadPipeline<String[], CsvLoadPipeline.ListChunk<String[]>> pipeline = new CsvLoadPipeline<>(
+                    connectionGate, config.writerConnections(), config.pipelineQueueCapacity(), batchController,
+                    CsvLoadPipeline.ListChunk::new);
+            return pipeline.run(connection, sql, segments, config.parseThreads(),
+                    (ps, chunk) -> bindChunk(ps, chunk.records(), binders, request.tracker()));
+        } catch (IOException e) {
+            throw new CsvDataLoaderException("Exception while Loading csv", e);
+        }
+    }
+
+    private static CsvLoadPipeline.BoundChunk bindChunk(PreparedStatement ps, List<String[]> chunk,
+            CsvFieldBinder[] binders, CsvLoadTracker tracker) throws SQLException {
+        long bytes = 0;
+        for (String[] values : chunk) {
+            try {
+                for (int i = 0; i < binders.length; i++) {
+                    binders[i].bind(ps, values[i]);
+                    bytes += CsvLoadPipeline.fieldBytes(values[i]);
+                }
+            } catch (SQLException | IllegalArgumentException e) {
+                tracker.parseError();
+                throw new CsvDataLoaderException(
+                        BatchInsertCsvBulkLoadStrategy.EXCEPTION_WHILE_SETTING_VALUE_TO_PREPARED_STATEMENT, e);
+            }
+            ps.addBatch();
+            ps.clearParameters();
+        }
+        return new CsvLoadPipeline.BoundChunk(chunk.size(), bytes);
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a csv file through {@link FileChannel#map}. The data part of the file
+ * is split into segments that end behind a line separator, so every segment
+ * could be parsed by an own thread. The parser works on the mapped bytes and
+ * decodes only the fields of the requested columns.
+ *
+ * Segments are aligned to line separators, so line breaks inside of quoted
+ * fields are not supported. Separator, quote and line separator must be single
+ * bytes, which holds for ASCII characters in charsets that are
+ * {@link CsvFileRange#isAsciiCompatible(Charset) ASCII compatible}.
+ */
+final class MappedCsvReader {
+
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final byte separator;
+    private final byte quote;
+    private final boolean skipEmptyLines;
+
+    MappedCsvReader(FileChannel channel, Charset charset, char separator, char quote, boolean skipEmptyLines) {
+        this.channel = channel;
+        this.charset = charset;
+        this.separator = (byte) separator;
+        this.quote = (byte) quote;
+        this.skipEmptyLines = skipEmptyLines;
+    }
+
+    /**
+     * @return true if the character could be matched as single byte
+     */
+    static boolean isSingleByte(char c) {
+        return c > 0 && c < 128 && c != '\n' && c != '\r';
+    }
+
+    /**
+     * Returns the position behind the first {@code count} records. Empty lines
+     * are not counted if they are skipped.
+     */
+    long skipRecords(int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        long size = channel.size();
+        long position = 0;
+        int skipped = 0;
+        boolean quoted = false;
+        boolean empty = true;
+        while (skipped < count && position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read && skipped < count; i++) {
+                byte b = buffer.get(i);
+                position++;
+                if (b == quote) {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    if (!empty || !skipEmptyLines) {
+                        skipped++;
+                    }
+                    empty = true;
+                    continue;
+                }
+                if (b != '\r') {
+                    empty = false;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Splits the bytes from {@code start} to the end of the file into at least
+     * {@code count} segments and returns a lazy record iterator per segment.
+     * Every record is an array with the decoded field for each column, or null
+     * if the record has no field for the column.
+     *
+     * @param fieldColumns the column of every field of the record, -1 if the
+     *                     field is not needed
+     * @param columnCount  count of columns
+     */
+    List<Iterator<String[]>> segments(long start, int count, int[] fieldColumns, int columnCount)
+            throws IOException {
+        long end = channel.size();
+        long length = end - start;
+        int segmentCount = (int) Math.max(Math.max(1, count), (length + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE);
+
+        List<Iterator<String[]>> segments = new ArrayList<>(segmentCount);
+        long segmentStart = start;
+        for (int i = 1; i <= segmentCount && segmentStart < end; i++) {
+            long segmentEnd = i == segmentCount ? end : lineEnd(start + length * i / segmentCount, end);
+            if (segmentEnd > segmentStart) {
+                segments.add(new SegmentIterator(segmentStart, segmentEnd, fieldColumns, columnCount));
+            }
+            segmentStart = segmentEnd;
+        }
+        return segments;
+    }
+
+    /**
+     * @return the position behind the first line separator at or after position
+     */
+    private long lineEnd(long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        long p = Math.max(0, position - 1);
+        while (p < end) {
+            buffer.clear();
+            int read = channel.read(buffer, p);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += read;
+        }
+        return end;
+    }
+
+    private final class SegmentIterator implements Iterator<String[]> {
+
+        private final long start;
+        private final long end;
+        private final int[] fieldColumns;
+        private final int columnCount;
+
+        private MappedByteBuffer buffer;
+        private int limit;
+        private int position;
+        private byte[] bytes = new byte[256];
+        private String[] next;
+
+        SegmentIterator(long start, long end, int[] fieldColumns, int columnCount) {
+            this.start = start;
+            this.end = end;
+            this.fieldColumns = fieldColumns;
+            this.columnCount = columnCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = parseRecord();
+            }
+            return next != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] r = next;
+            next = null;
+            return r;
+        }
+
+        private String[] parseRecord() {
+            if (buffer == null) {
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                limit = buffer.limit();
+            }
+
+            while (skipEmptyLines && position < limit && isLineEnd(position)) {
+                position += buffer.get(position) == '\r' ? 2 : 1;
+            }
+            if (position >= limit) {
+                return null;
+            }
+
+            String[] values = new String[columnCount];
+            int field = 0;
+            while (true) {
+                int column = field < fieldColumns.length ? fieldColumns[field] : -1;
+                if (position < limit && buffer.get(position) == quote) {
+                    parseQuoted(values, column);
+                } else {
+                    parseUnquoted(values, column);
+                }
+                if (position >= limit) {
+                    return values;
+                }
+                byte b = buffer.get(position++);
+                if (b == separator) {
+                    field++;
+                } else if (b == '\n') {
+                    return values;
+                } else if (b == '\r') {
+                    if (position < limit && buffer.get(position) == '\n') {
+                        position++;
+                    }
+                    return values;
+                }
+            }
+        }
+
+        private boolean isLineEnd(int p) {
+            byte b = buffer.get(p);
+            return b == '\n' || (b == '\r' && p + 1 < limit && buffer.get(p + 1) == '\n');
+        }
+
+        private void parseUnquoted(String[] values, int column) {
+            int from = position;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == separator || b == '\n' || b == '\r') {
+                    break;
+                }
+                position++;
+            }
+            if (column >= 0 && column < values.length) {
+                values[column] = decode(from, position - from);
+            }
+        }
+
+        private void parseQuoted(String[] values, int column) {
+            position++;
+            int length = 0;
+            boolean decodeField = column >= 0 && column < values.length;
+            while (position < limit) {
+                byte b = buffer.get(position++);
+                if (b == quote) {
+                    if (position < limit && buffer.get(position) == quote) {
+                        // escaped quote
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                if (decodeField) {
+                    ensureCapacity(length + 1);
+                    bytes[length++] = b;
+                }
+            }
+            // characters between the closing quote and the separator belong to the field
+            int from = position;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == separator || b == '\n' || b == '\r') {
+                    break;
+                }
+                position++;
+            }
+            if (decodeField) {
+                ensureCapacity(length + position - from);
+                buffer.get(from, bytes, length, position - from);
+                values[column] = new String(bytes, 0, length + position - from, charset);
+            }
+        }
+
+        private String decode(int from, int length) {
+            ensureCapacity(length);
+            buffer.get(from, bytes, 0, length);
+            return new String(bytes, 0, length, charset);
+        }
+
+        private void ensureCapacity(int length) {
+            if (bytes.length < length) {
+                byte[] b = new byte[Math.max(length, bytes.length * 2)];
+                System.arraycopy(bytes, 0, b, 0, bytes.length);
+                bytes = b;
+            }
+        }
+    }
+}
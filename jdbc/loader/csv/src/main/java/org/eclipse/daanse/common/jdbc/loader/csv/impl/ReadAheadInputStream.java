@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link InputStream} that reads its source on an own thread into a bounded
+ * queue of chunks. Used as pipeline stage for decompression, so decompressing
+ * the next chunks overlaps with parsing the current one.
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    private static final byte[] END_OF_DATA = new byte[0];
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> queue;
+    private final Thread reader;
+
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean eof;
+
+    ReadAheadInputStream(InputStream source, String name, int chunkSize, int queueCapacity) {
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.reader = Thread.ofPlatform().name(name).daemon().start(() -> readAhead(Math.max(1, chunkSize)));
+    }
+
+    private void readAhead(int chunkSize) {
+        try (source) {
+            while (!closed) {
+                byte[] buffer = source.readNBytes(chunkSize);
+                if (buffer.length == 0) {
+                    break;
+                }
+                queue.put(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            queue.put(END_OF_DATA);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < chunk.length) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        try {
+            chunk = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data", e);
+        }
+        position = 0;
+        if (chunk == END_OF_DATA) {
+            eof = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stops the reading thread, that closes the source.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        reader.interrupt();
+        queue.clear();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing", e);
+        }
+    }
+}
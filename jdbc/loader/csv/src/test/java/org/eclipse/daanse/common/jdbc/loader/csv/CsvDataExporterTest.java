@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.osgi.test.common.dictionary.Dictionaries.dictionaryOf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.Constants;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvDataExporter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.CleanupMode;
+import org.junit.jupiter.api.io.TempDir;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.cm.Configuration;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.annotations.RequireConfigurationAdmin;
+import org.osgi.test.common.annotation.InjectBundleContext;
+import org.osgi.test.common.annotation.InjectService;
+import org.osgi.test.junit5.context.BundleContextExtension;
+import org.osgi.test.junit5.service.ServiceExtension;
+
+@ExtendWith(BundleContextExtension.class)
+@ExtendWith(ServiceExtension.class)
+@RequireConfigurationAdmin
+class CsvDataExporterTest {
+    @TempDir(cleanup = CleanupMode.ON_SUCCESS)
+    Path path;
+
+    @InjectBundleContext
+    BundleContext bc;
+
+    @InjectService
+    ConfigurationAdmin ca;
+
+    private Configuration conf;
+    private Connection connection;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:memFS:" + UUID.randomUUID().toString());
+        connection = dataSource.getConnection();
+        bc.registerService(DataSource.class, dataSource, dictionaryOf("ds", "1"));
+    }
+
+    @AfterEach
+    void afterEach() throws IOException, SQLException {
+        if (conf != null) {
+            conf.delete();
+        }
+        connection.close();
+    }
+
+    @Test
+    void testExport() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE \"exported\" (\"id\" INTEGER, \"name\" VARCHAR(20), \"day\" DATE, "
+                    + "\"price\" DECIMAL(10, 2))");
+            stmt.execute("INSERT INTO \"exported\" VALUES (1, 'a,b', DATE '2024-01-15', 1.5)");
+            stmt.execute("INSERT INTO \"exported\" VALUES (2, NULL, NULL, NULL)");
+        }
+
+        conf = ca.getFactoryConfiguration(Constants.PID_EXPORTER, "1", "?");
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_EXPORT_FETCH_SIZE, 1);
+        dict.put(Constants.PROPERETY_EXPORT_WRITE_BUFFER_SIZE, 16);
+        conf.update(dict);
+        Thread.sleep(500);
+
+        ServiceReference<CsvDataExporter> reference = bc.getServiceReference(CsvDataExporter.class);
+        assertThat(reference).isNotNull();
+        CsvDataExporter exporter = bc.getService(reference);
+        try {
+            Path target = path.resolve("exported.csv");
+            assertThat(exporter.export(new TableReferenceR("exported"), target)).isEqualTo(2);
+
+            List<String> lines = Files.readAllLines(target);
+            assertThat(lines).containsExactly("id,name,day,price", "INTEGER,VARCHAR(20),DATE,DECIMAL(10.2)",
+                    "1,\"a,b\",2024-01-15,1.50", "2,NULL,NULL,NULL");
+            assertThat(path.resolve("exported.csv.tmp")).doesNotExist();
+        } finally {
+            bc.ungetService(reference);
+        }
+    }
+}
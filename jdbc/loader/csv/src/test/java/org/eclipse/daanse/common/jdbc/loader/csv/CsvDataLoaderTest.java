@@ -18,17 +18,32 @@ import static org.osgi.test.common.dictionary.Dictionaries.dictionaryOf;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 
 import javax.sql.DataSource;
 
@@ -40,6 +55,8 @@ import org.eclipse.daanse.common.jdbc.db.api.sql.TableReference;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.SchemaReferenceR;
 import org.eclipse.daanse.common.jdbc.db.record.sql.element.TableReferenceR;
 import org.eclipse.daanse.common.jdbc.loader.csv.api.Constants;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvFileLoadMetrics;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvLoadMetrics;
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,6 +66,7 @@ import org.junit.jupiter.api.io.CleanupMode;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.cm.annotations.RequireConfigurationAdmin;
@@ -110,8 +128,12 @@ class CscDataLoaderTest {
 
     private void setupCsvDataLoadServiceImpl(String nullValue, Character quote, Character fieldSeparator,
             String encoding, String stringPath) throws IOException {
+        setupCsvDataLoadServiceImpl(nullValue, quote, fieldSeparator, encoding, stringPath, new Hashtable<>());
+    }
+
+    private void setupCsvDataLoadServiceImpl(String nullValue, Character quote, Character fieldSeparator,
+            String encoding, String stringPath, Dictionary<String, Object> dict) throws IOException {
         conf = ca.getFactoryConfiguration(Constants.PID_LOADER_FILEWATCHER, "1", "?");
-        Dictionary<String, Object> dict = new Hashtable<>();
         if (nullValue != null) {
 
             dict.put(Constants.PROPERETY_CSV_NULL_VALUE, nullValue);
@@ -177,4 +199,774 @@ class CscDataLoaderTest {
 
     }
 
+    @Test
+    void testPipelinedLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_JDBC_BATCH, 100);
+        dict.put(Constants.PROPERETY_JDBC_WRITER_CONNECTIONS, 4);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 10_000; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("pipeline.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("pipeline")).isEqualTo(10_000);
+    }
+
+    @Test
+    void testOffHeapStagedLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_JDBC_BATCH, 100);
+        dict.put(Constants.PROPERETY_JDBC_WRITER_CONNECTIONS, 4);
+        dict.put(Constants.PROPERETY_OFF_HEAP_STAGING, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name,price,day\nINTEGER,VARCHAR(20),DECIMAL(10.2),DATE\n");
+        for (int i = 0; i < 10_000; i++) {
+            sb.append(i).append(",n\u00e4me").append(i).append(",").append(i % 100).append(".5,")
+                    .append(i % 2 == 0 ? "2024-01-15" : "NULL").append("\n");
+        }
+        writeAtomic(p.resolve("staged.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("staged")).isEqualTo(10_000);
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery(
+                        "SELECT \"name\", \"price\", \"day\" FROM \"staged\" WHERE \"id\" = 4243")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString(1)).isEqualTo("n\u00e4me4243");
+            assertThat(rs.getDouble(2)).isEqualTo(43.5);
+            assertThat(rs.getDate(3)).isNull();
+        }
+    }
+
+    @Test
+    void testAdaptiveBatchLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_JDBC_BATCH, 10);
+        dict.put(Constants.PROPERETY_MIN_BATCH_SIZE, 10);
+        dict.put(Constants.PROPERETY_MAX_BATCH_SIZE, 500);
+        dict.put(Constants.PROPERETY_COMMIT_ROW_INTERVAL, 1_000);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 5_001; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("adaptive.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("adaptive")).isEqualTo(5_001);
+    }
+
+    @Test
+    void testBulkLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_JDBC_BULK_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        sb.append(",NULL\n");
+        writeAtomic(p.resolve("bulk.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("bulk")).isEqualTo(1_001);
+        assertThat(loadStrategy("bulk.csv")).contains("h2CsvRead");
+    }
+
+    @Test
+    void testBulkLoadSameRows() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_JDBC_BULK_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name,price,day,active\n"
+                + "INTEGER,VARCHAR(40),DECIMAL(10.2),DATE,BOOLEAN\n");
+        for (int i = 0; i < 100; i++) {
+            sb.append(i).append(",\" n,\u00e4me \"\"").append(i).append("\"\" \",").append(i % 10).append(".25,")
+                    .append(i % 3 == 0 ? "NULL" : "2024-01-15").append(",").append(i % 2 == 0 ? "TRUE" : "false")
+                    .append("\n");
+        }
+        sb.append("100,\"\",\"\",NULL,NULL\n");
+        sb.append("101,NULL,NULL,2024-02-29,true\n");
+        writeAtomic(p.resolve("bulksame.csv"), sb.toString());
+        // compressed files are not read by the database
+        Path tmp = path.resolve(UUID.randomUUID().toString());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.move(tmp, p.resolve("batchsame.csv.gz"), StandardCopyOption.ATOMIC_MOVE);
+        Thread.sleep(2000);
+
+        assertThat(loadStrategy("bulksame.csv")).contains("h2CsvRead");
+        assertThat(loadStrategy("batchsame.csv.gz")).contains("batchInsert");
+        assertThat(countRows("bulksame")).isEqualTo(102);
+        assertThat(countRows("batchsame")).isEqualTo(102);
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM ("
+                        + "(SELECT * FROM \"bulksame\" EXCEPT SELECT * FROM \"batchsame\") UNION ALL "
+                        + "(SELECT * FROM \"batchsame\" EXCEPT SELECT * FROM \"bulksame\"))")) {
+            rs.next();
+            assertThat(rs.getLong(1)).isZero();
+        }
+        assertThat(countRows("bulksame", "\"name\" = ' n,\u00e4me \"7\" '")).isEqualTo(1);
+        assertThat(countRows("bulksame", "\"id\" = 100 AND \"name\" = '' AND \"price\" = 0")).isEqualTo(1);
+    }
+
+    @Test
+    void testIncrementalLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_INCREMENTAL_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 100; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("incremental.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("incremental")).isEqualTo(100);
+
+        // appended rows and a last line that is still written
+        for (int i = 100; i < 150; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("incremental.csv"), sb.toString() + "150,na");
+        Thread.sleep(2000);
+        assertThat(countRows("incremental")).isEqualTo(150);
+
+        // changed prefix forces a full reload
+        writeAtomic(p.resolve("incremental.csv"), sb.toString().replace("0,name0\n", "0,changed\n"));
+        Thread.sleep(2000);
+        assertThat(countRows("incremental")).isEqualTo(150);
+        assertThat(countRows("incremental", "\"id\" = 0 AND \"name\" = 'changed'")).isEqualTo(1);
+        assertThat(countRows("incremental", "\"name\" = 'name0'")).isZero();
+    }
+
+    @Test
+    void testInferredIncrementalLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_INCREMENTAL_LOAD, true);
+        dict.put(Constants.PROPERETY_CSV_TYPES_ROW, false);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,code\n");
+        for (int i = 0; i < 10; i++) {
+            sb.append(i).append(",").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("inferredappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("inferredappend")).isEqualTo(10);
+
+        // rows that fit the inferred types are appended
+        sb.append("10,10\n");
+        writeAtomic(p.resolve("inferredappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("inferredappend")).isEqualTo(11);
+
+        // rows that change the inferred types reload the table
+        sb.append("11,code11\n");
+        writeAtomic(p.resolve("inferredappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("inferredappend")).isEqualTo(12);
+        assertThat(countRows("inferredappend", "\"code\" = 'code11'")).isEqualTo(1);
+
+        sb.append("12,longer code12\n");
+        writeAtomic(p.resolve("inferredappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("inferredappend")).isEqualTo(13);
+        assertThat(countRows("inferredappend", "\"code\" = 'longer code12'")).isEqualTo(1);
+    }
+
+    @Test
+    void testShadowTableLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_SHADOW_TABLE_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        writeAtomic(p.resolve("shadow.csv"), "id,name\nINTEGER,VARCHAR(20)\n1,a\n2,b\n");
+        Thread.sleep(2000);
+        assertThat(countRows("shadow")).isEqualTo(2);
+
+        writeAtomic(p.resolve("shadow.csv"), "id,name\nINTEGER,VARCHAR(20)\n1,a\n2,b\n3,c\n");
+        Thread.sleep(2000);
+        assertThat(countRows("shadow")).isEqualTo(3);
+
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, "shadow__%", null)) {
+            assertThat(rs.next()).isFalse();
+        }
+    }
+
+    @Test
+    void testShadowTableSwapFailure() throws IOException, SQLException, InterruptedException {
+        AtomicBoolean failing = new AtomicBoolean();
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setUrl(metaData.getURL());
+        bc.registerService(DataSource.class,
+                proxy(DataSource.class, h2DataSource,
+                        sql -> failing.get() && sql.contains("shadowfail__shadow\" RENAME TO")),
+                dictionaryOf("ds", "2", "service.ranking", 100));
+
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_SHADOW_TABLE_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        writeAtomic(p.resolve("shadowfail.csv"), "id,name\nINTEGER,VARCHAR(20)\n1,a\n2,b\n");
+        Thread.sleep(2000);
+        assertThat(countRows("shadowfail")).isEqualTo(2);
+
+        // the second rename fails, the table must keep its old content
+        failing.set(true);
+        writeAtomic(p.resolve("shadowfail.csv"), "id,name\nINTEGER,VARCHAR(20)\n1,a\n2,b\n3,c\n");
+        Thread.sleep(2000);
+        assertThat(countRows("shadowfail")).isEqualTo(2);
+
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, "shadowfail__retired", null)) {
+            assertThat(rs.next()).isFalse();
+        }
+    }
+
+    @Test
+    void testInitialLoadBounded() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        for (int f = 0; f < 5; f++) {
+            StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+            for (int i = 0; i < (f + 1) * 100; i++) {
+                sb.append(i).append(",name").append(i).append("\n");
+            }
+            writeAtomic(p.resolve("initial" + f + ".csv"), sb.toString());
+        }
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_LOADER_THREADS, 3);
+        dict.put(Constants.PROPERETY_MAX_CONNECTIONS, 1);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+        Thread.sleep(2000);
+
+        for (int f = 0; f < 5; f++) {
+            assertThat(countRows("initial" + f)).isEqualTo((f + 1) * 100);
+        }
+    }
+
+    @Test
+    void testSkipUnchangedFiles() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        String content = "id,name\nINTEGER,VARCHAR(20)\n1,name1\n2,name2\n";
+        writeAtomic(p.resolve("unchanged.csv"), content);
+        writeAtomic(p.resolve("changed.csv"), content);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_SKIP_UNCHANGED_FILES, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+        Thread.sleep(2000);
+        assertThat(countRows("unchanged")).isEqualTo(2);
+        assertThat(countRows("changed")).isEqualTo(2);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO \"unchanged\" VALUES (3, 'marker')");
+            statement.execute("INSERT INTO \"changed\" VALUES (3, 'marker')");
+        }
+
+        // change the files while the loader is stopped, so no watcher sees it
+        conf.delete();
+        conf = null;
+        Thread.sleep(500);
+        Files.writeString(p.resolve("changed.csv"), content + "4,name4\n");
+        Files.setLastModifiedTime(p.resolve("unchanged.csv"), FileTime.fromMillis(System.currentTimeMillis()));
+
+        // the restarted loader starts with an initial load
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+        Thread.sleep(2000);
+
+        // a touched file with the same content is skipped and keeps the marker
+        assertThat(countRows("unchanged")).isEqualTo(3);
+        assertThat(countRows("unchanged", "\"name\" = 'marker'")).isEqualTo(1);
+        // a changed file is reloaded, the marker is gone
+        assertThat(countRows("changed")).isEqualTo(3);
+        assertThat(countRows("changed", "\"id\" = 4")).isEqualTo(1);
+        assertThat(countRows("changed", "\"name\" = 'marker'")).isZero();
+    }
+
+    @Test
+    void testDebouncedReload() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_RELOAD_QUIET_PERIOD, 500L);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int chunk = 0; chunk < 5; chunk++) {
+            for (int i = 0; i < 1_000; i++) {
+                sb.append(chunk * 1_000 + i).append(",name").append(i).append("\n");
+            }
+            writeAtomic(p.resolve("debounced.csv"), sb.toString());
+            Thread.sleep(100);
+        }
+        assertThat(metaData.getTables(null, null, "debounced", null).next()).isFalse();
+        Thread.sleep(2000);
+
+        assertThat(countRows("debounced")).isEqualTo(5_000);
+    }
+
+    @Test
+    void testPartitionedLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        for (int day = 1; day <= 3; day++) {
+            StringBuilder sb = new StringBuilder("id,amount\nINTEGER,INTEGER\n");
+            for (int i = 0; i < day * 100; i++) {
+                sb.append(i).append(",").append(day).append("\n");
+            }
+            writeAtomic(p.resolve("sales_2026-10-0" + day + ".csv"), sb.toString());
+        }
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_PARTITION_PATTERN, "(?<table>.+)_(?<partition>\\d{4}-\\d{2}-\\d{2})");
+        dict.put(Constants.PROPERETY_LOADER_THREADS, 3);
+        // would commit every few rows on several connections outside of partitions
+        dict.put(Constants.PROPERETY_JDBC_WRITER_CONNECTIONS, 2);
+        dict.put(Constants.PROPERETY_JDBC_BATCH, 10);
+        dict.put(Constants.PROPERETY_COMMIT_ROW_INTERVAL, 10);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+        Thread.sleep(2000);
+
+        assertThat(countRows("sales")).isEqualTo(600);
+        assertThat(countPartition("sales", "2026-10-02")).isEqualTo(200);
+
+        writeAtomic(p.resolve("sales_2026-10-02.csv"), "id,amount\nINTEGER,INTEGER\n1,2\n");
+        Thread.sleep(2000);
+        assertThat(countRows("sales")).isEqualTo(401);
+        assertThat(countPartition("sales", "2026-10-02")).isEqualTo(1);
+        assertThat(countPartition("sales", "2026-10-03")).isEqualTo(300);
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT \"id\", \"amount\" FROM \"sales\" WHERE \"PARTITION_KEY\" = '2026-10-02'")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getInt(1)).isEqualTo(1);
+            assertThat(rs.getInt(2)).isEqualTo(2);
+        }
+
+        // a failed replace keeps the old rows of the partition
+        StringBuilder sb = new StringBuilder("id,amount\nINTEGER,INTEGER\n");
+        for (int i = 0; i < 50; i++) {
+            sb.append(i).append(",4\n");
+        }
+        sb.append("50,x\n");
+        writeAtomic(p.resolve("sales_2026-10-03.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countPartition("sales", "2026-10-03")).isEqualTo(300);
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT MIN(\"amount\"), MAX(\"amount\") FROM \"sales\""
+                        + " WHERE \"PARTITION_KEY\" = '2026-10-03'")) {
+            rs.next();
+            assertThat(rs.getInt(1)).isEqualTo(3);
+            assertThat(rs.getInt(2)).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void testTypeInference() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_CSV_TYPES_ROW, false);
+        dict.put(Constants.PROPERETY_TYPE_INFERENCE_SAMPLE_SIZE, 2);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        writeAtomic(p.resolve("inferred.csv"), """
+                id,big,amount,flag,day,name,due
+                1,3000000000,1.5,true,2024-01-31,a,2024-03-01
+                2,NULL,12.25,false,2024-02-01,bcd,
+                3,4,7,TRUE,2024-02-02,e,2024-03-03
+                """);
+        Thread.sleep(2000);
+        assertThat(countRows("inferred")).isEqualTo(3);
+        // an empty field is no date, it loads as empty text
+        assertThat(countRows("inferred", "\"due\" = ''")).isEqualTo(1);
+
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, "inferred", null)) {
+            Map<String, Integer> types = new HashMap<>();
+            Map<String, Integer> sizes = new HashMap<>();
+            while (rs.next()) {
+                types.put(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"));
+                sizes.put(rs.getString("COLUMN_NAME"), rs.getInt("COLUMN_SIZE"));
+            }
+            assertThat(types).containsEntry("id", Types.SMALLINT).containsEntry("big", Types.BIGINT)
+                    .containsEntry("amount", Types.DECIMAL).containsEntry("flag", Types.BOOLEAN)
+                    .containsEntry("day", Types.DATE).containsEntry("name", Types.VARCHAR)
+                    .containsEntry("due", Types.VARCHAR);
+            assertThat(sizes).containsEntry("amount", 4).containsEntry("name", 3).containsEntry("due", 10);
+        }
+    }
+
+    @Test
+    void testEncodingLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_INCREMENTAL_LOAD, true);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "ISO-8859-1", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n1,M\u00fcller\n");
+        writeAtomic(p.resolve("latin1.csv"), sb.toString(), StandardCharsets.ISO_8859_1);
+        Thread.sleep(2000);
+        assertThat(countRows("latin1", "\"name\" = 'M\u00fcller'")).isEqualTo(1);
+
+        sb.append("2,Stra\u00dfe\n");
+        writeAtomic(p.resolve("latin1.csv"), sb.toString(), StandardCharsets.ISO_8859_1);
+        Thread.sleep(2000);
+        assertThat(countRows("latin1")).isEqualTo(2);
+        assertThat(countRows("latin1", "\"name\" = 'Stra\u00dfe'")).isEqualTo(1);
+    }
+
+    @Test
+    void testGzipLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv");
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        Path tmp = path.resolve(UUID.randomUUID().toString());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.move(tmp, p.resolve("compressed.csv.gz"), StandardCopyOption.ATOMIC_MOVE);
+        Thread.sleep(2000);
+
+        assertThat(countRows("compressed")).isEqualTo(1_000);
+    }
+
+    @Test
+    void testMemoryMappedLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_MEMORY_MAPPED_READ, true);
+        dict.put(Constants.PROPERETY_PARSE_THREADS, 3);
+        dict.put(Constants.PROPERETY_JDBC_BATCH, 100);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 10_000; i++) {
+            sb.append(i).append(",\"na,me").append(i).append("\"\n");
+        }
+        sb.append("NULL,NULL\n");
+        writeAtomic(p.resolve("mapped.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("mapped")).isEqualTo(10_001);
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT \"name\" FROM \"mapped\" WHERE \"id\" = 42")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString(1)).isEqualTo("na,me42");
+        }
+        assertThat(loadStrategy("mapped.csv")).contains("mappedRead");
+    }
+
+    @Test
+    void testMemoryMappedStrictFieldCount() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_MEMORY_MAPPED_READ, true);
+        dict.put(Constants.PROPERETY_CSV_IGNORE_DIFFERENT_FIELD_COUNT, false);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        writeAtomic(p.resolve("strict.csv"), "id,name\nINTEGER,VARCHAR(20)\n1,name1\n2,name2\n");
+        Thread.sleep(2000);
+
+        // the mapped reader does not check the field count
+        assertThat(countRows("strict")).isEqualTo(2);
+        assertThat(loadStrategy("strict.csv")).contains("batchInsert");
+    }
+
+    @Test
+    void testTolerantLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_MAX_REJECTED_ROWS, 10);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,day\nINTEGER,DATE\n");
+        for (int i = 0; i < 100; i++) {
+            sb.append(i).append(",2024-01-15\n");
+        }
+        sb.append("100,2024-13-45x\n");
+        sb.append("x101,2024-01-15\n");
+        writeAtomic(p.resolve("tolerant.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("tolerant")).isEqualTo(100);
+        Path rejects = p.resolve("tolerant.rejects.csv");
+        assertThat(rejects).exists();
+        List<String> lines = Files.readAllLines(rejects);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("103,").endsWith(",100,2024-13-45x");
+        assertThat(lines.get(1)).startsWith("104,").contains("NumberFormatException");
+    }
+
+    @Test
+    void testTolerantIncrementalLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_INCREMENTAL_LOAD, true);
+        dict.put(Constants.PROPERETY_MAX_REJECTED_ROWS, 10);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 10; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        sb.append("x10,name10\n");
+        writeAtomic(p.resolve("tolerantappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("tolerantappend")).isEqualTo(10);
+
+        // the line numbers of an append count from the start of the file
+        sb.append("11,name11\n").append("x12,name12\n");
+        writeAtomic(p.resolve("tolerantappend.csv"), sb.toString());
+        Thread.sleep(2000);
+        assertThat(countRows("tolerantappend")).isEqualTo(11);
+
+        List<String> lines = Files.readAllLines(p.resolve("tolerantappend.rejects.csv"));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("13,").endsWith(",x10,name10");
+        assertThat(lines.get(1)).startsWith("15,").endsWith(",x12,name12");
+
+        // a rewritten file is reloaded completely and replaces the rejects
+        writeAtomic(p.resolve("tolerantappend.csv"), sb.toString().replace("x10,", "10,"));
+        Thread.sleep(2000);
+        assertThat(countRows("tolerantappend")).isEqualTo(12);
+
+        lines = Files.readAllLines(p.resolve("tolerantappend.rejects.csv"));
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).startsWith("15,").endsWith(",x12,name12");
+    }
+
+    @Test
+    void testLoadMetrics() throws Exception {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv");
+
+        Thread.sleep(500);
+        StringBuilder sb = new StringBuilder("id,name\nINTEGER,VARCHAR(20)\n");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(i).append(",name").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("metrics.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        ServiceReference<CsvLoadMetrics> reference = bc.getServiceReference(CsvLoadMetrics.class);
+        assertThat(reference).isNotNull();
+        CsvLoadMetrics metrics = bc.getService(reference);
+        try {
+            Optional<CsvFileLoadMetrics> load = metrics.fileLoads().stream()
+                    .filter(m -> m.file().equals("metrics.csv")).findFirst();
+            assertThat(load).isPresent();
+            assertThat(load.get().state()).isEqualTo(CsvFileLoadMetrics.State.FINISHED);
+            assertThat(load.get().rowsParsed()).isEqualTo(1_000);
+            assertThat(load.get().rowsInserted()).isEqualTo(1_000);
+            assertThat(load.get().bytesRead()).isPositive();
+            assertThat(load.get().parseErrors()).isZero();
+            assertThat(load.get().batchLatencyHistogram()).hasSize(
+                    CsvFileLoadMetrics.BATCH_LATENCY_BOUNDS_MILLIS.size() + 1);
+        } finally {
+            bc.ungetService(reference);
+        }
+    }
+
+    @Test
+    void testIndexedLoad() throws IOException, SQLException, InterruptedException {
+        Path p = path.resolve("csv");
+        Files.createDirectories(p);
+        Thread.sleep(200);
+
+        Dictionary<String, Object> dict = new Hashtable<>();
+        dict.put(Constants.PROPERETY_INDEX_THREADS, 2);
+        setupCsvDataLoadServiceImpl("NULL", '\"', ',', "UTF-8", "csv", dict);
+
+        Thread.sleep(500);
+        Files.writeString(p.resolve("indexed.index.properties"), "unique.byCode=code,name\n");
+        StringBuilder sb = new StringBuilder("id,name,code\nINTEGER PK,VARCHAR(20) INDEX,VARCHAR(20)\n");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(i).append(",name").append(i % 10).append(",code").append(i).append("\n");
+        }
+        writeAtomic(p.resolve("indexed.csv"), sb.toString());
+        Thread.sleep(2000);
+
+        assertThat(countRows("indexed")).isEqualTo(1_000);
+        try (ResultSet rs = metaData.getPrimaryKeys(null, null, "indexed")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getString("COLUMN_NAME")).isEqualTo("id");
+            assertThat(rs.next()).isFalse();
+        }
+        Map<String, Boolean> indexes = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, "indexed", false, false)) {
+            while (rs.next()) {
+                indexes.put(rs.getString("INDEX_NAME"), rs.getBoolean("NON_UNIQUE"));
+            }
+        }
+        assertThat(indexes).containsEntry("indexed_name", true).containsEntry("indexed_byCode", false);
+    }
+
+    /**
+     * Wraps the JDBC object, the {@link Statement}s fail on the sql the predicate
+     * matches.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Predicate<String> failing) {
+        return (T) Proxy.newProxyInstance(CscDataLoaderTest.class.getClassLoader(), new Class<?>[] { type },
+                (p, method, args) -> {
+                    if (type == Statement.class && "execute".equals(method.getName()) && args != null
+                            && args.length == 1 && failing.test((String) args[0])) {
+                        throw new SQLException("Failing sql " + args[0]);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getReturnType() == Connection.class) {
+                        return proxy(Connection.class, result, failing);
+                    }
+                    if (method.getReturnType() == Statement.class) {
+                        return proxy(Statement.class, result, failing);
+                    }
+                    return result;
+                });
+    }
+
+    private Optional<String> loadStrategy(String file) {
+        ServiceReference<CsvLoadMetrics> reference = bc.getServiceReference(CsvLoadMetrics.class);
+        CsvLoadMetrics metrics = bc.getService(reference);
+        try {
+            return metrics.fileLoads().stream().filter(m -> m.file().equals(file)).findFirst()
+                    .flatMap(CsvFileLoadMetrics::strategy);
+        } finally {
+            bc.ungetService(reference);
+        }
+    }
+
+    private void writeAtomic(Path target, String content) throws IOException {
+        writeAtomic(target, content, StandardCharsets.UTF_8);
+    }
+
+    private void writeAtomic(Path target, String content, Charset charset) throws IOException {
+        Path tmp = Files.writeString(path.resolve(UUID.randomUUID().toString()), content, charset);
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long countPartition(String table, String partition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM \"" + table
+                        + "\" WHERE \"PARTITION_KEY\" = '" + partition + "'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long countRows(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM \"" + table + "\"")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long countRows(String table, String condition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement
+                        .executeQuery("SELECT COUNT(*) FROM \"" + table + "\" WHERE " + condition)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
 }
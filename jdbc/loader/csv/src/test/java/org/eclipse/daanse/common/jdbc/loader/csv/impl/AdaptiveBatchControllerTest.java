@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   SmartCity Jena, Stefan Bischof - initial
+ *
+ */
+package org.eclipse.daanse.common.jdbc.loader.csv.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveBatchControllerTest {
+
+    @Mock
+    CsvDataLoaderConfig config;
+
+    private CsvLoadTracker tracker = new CsvLoadTracker("test.csv", -1);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(config.adaptiveBatchSize()).thenReturn(true);
+        lenient().when(config.batchTargetLatency()).thenReturn(100);
+        lenient().when(config.batchSize()).thenReturn(100);
+        lenient().when(config.minBatchSize()).thenReturn(10);
+        lenient().when(config.maxBatchSize()).thenReturn(1000);
+        lenient().when(config.maxBatchBytes()).thenReturn(100000);
+        lenient().when(config.commitRowInterval()).thenReturn(500);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void growFastBatches() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+        assertThat(controller.batchSize()).isEqualTo(100);
+
+        controller.batchExecuted(100, 1000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(200);
+        controller.batchExecuted(200, 2000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(400);
+        controller.batchExecuted(400, 4000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(800);
+        controller.batchExecuted(800, 8000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(1000);
+        controller.batchExecuted(1000, 10000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void shrinkSlowBatches() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+
+        controller.batchExecuted(100, 1000, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(50);
+        controller.batchExecuted(50, 500, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(25);
+        controller.batchExecuted(25, 250, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(12);
+        controller.batchExecuted(12, 120, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(10);
+    }
+
+    @Test
+    void keepBatchOnTarget() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+
+        controller.batchExecuted(100, 1000, millis(100));
+        assertThat(controller.batchSize()).isEqualTo(100);
+        controller.batchExecuted(100, 1000, millis(80));
+        assertThat(controller.batchSize()).isEqualTo(125);
+    }
+
+    @Test
+    void ignoreLatencyOfShortBatch() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+
+        controller.batchExecuted(30, 300, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(100);
+    }
+
+    @Test
+    void limitBatchByBytes() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+
+        // 1000 bytes per row, 100000 max batch bytes
+        controller.batchExecuted(100, 100000, millis(10));
+        assertThat(controller.batchSize()).isEqualTo(100);
+    }
+
+    @Test
+    void fixedBatchSize() {
+        lenient().when(config.adaptiveBatchSize()).thenReturn(false);
+        lenient().when(config.batchSize()).thenReturn(5);
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+        assertThat(controller.batchSize()).isEqualTo(5);
+
+        controller.batchExecuted(5, 50, millis(10));
+        controller.batchExecuted(5, 50, millis(1000));
+        assertThat(controller.batchSize()).isEqualTo(5);
+    }
+
+    @Test
+    void commitDue() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+        assertThat(controller.isCommitDue(499)).isFalse();
+        assertThat(controller.isCommitDue(500)).isTrue();
+
+        lenient().when(config.commitRowInterval()).thenReturn(0);
+        controller = new AdaptiveBatchController(config, tracker);
+        assertThat(controller.isCommitDue(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void reportBatchesToTracker() {
+        AdaptiveBatchController controller = new AdaptiveBatchController(config, tracker);
+
+        controller.batchExecuted(100, 1000, millis(10));
+        controller.batchExecuted(200, 2000, millis(300));
+
+        assertThat(controller.tracker()).isSameAs(tracker);
+        assertThat(tracker.rowsInserted()).isEqualTo(300);
+        assertThat(tracker.bytesRead()).isEqualTo(3000);
+        long[] histogram = tracker.batchLatencyHistogram();
+        // buckets up to 10 ms and up to 500 ms
+        assertThat(histogram[3]).isEqualTo(1);
+        assertThat(histogram[8]).isEqualTo(1);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+* Copyright (c) 2024 Contributors to the Eclipse Foundation.
+*
+* This program and the accompanying materials are made
+* available under the terms of the Eclipse Public License 2.0
+* which is available at https://www.eclipse.org/legal/epl-2.0/
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*   SmartCity Jena - initial
+*   Stefan Bischof (bipolis.org) - initial
+*/
+package org.eclipse.daanse.common.webconsole.csvloader;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvFileLoadMetrics;
+import org.eclipse.daanse.common.jdbc.loader.csv.api.CsvLoadMetrics;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Web console plugin that shows the {@link CsvFileLoadMetrics} of all csv
+ * loaders. The plugin writes only the content, the web console renders it into
+ * its branded page.
+ */
+@Component(service = Servlet.class, property = { "felix.webconsole.label=csvloader",
+        "felix.webconsole.title=CSV Loader", "felix.webconsole.category=Daanse" })
+public class CsvLoaderWebConsolePlugin extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<CsvLoadMetrics> loaders = new CopyOnWriteArrayList<>();
+
+    @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
+    void bindCsvLoadMetrics(CsvLoadMetrics metrics) {
+        loaders.add(metrics);
+    }
+
+    void unbindCsvLoadMetrics(CsvLoadMetrics metrics) {
+        loaders.remove(metrics);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/html");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter pw = response.getWriter();
+
+        if (loaders.isEmpty()) {
+            pw.println("<p class='statline'>No csv loader is active.</p>");
+            return;
+        }
+        for (CsvLoadMetrics loader : loaders) {
+            pw.print("<p class='statline'>Loader of ");
+            pw.print(escape(loader.basePath().map(Object::toString).orElse("-")));
+            pw.println("</p>");
+            pw.println("<table class='tablesorter nicetable'>");
+            pw.println("<thead><tr><th>File</th><th>State</th><th>Rows parsed</th><th>Rows inserted</th>"
+                    + "<th>Bytes</th><th>Parse errors</th><th>Parse time</th><th>Database time</th>"
+                    + "<th>Bound by</th><th>Rows/s</th><th>Bytes/s</th><th>ETA</th><th>Batch latency</th>"
+                    + "</tr></thead>");
+            pw.println("<tbody>");
+            for (CsvFileLoadMetrics load : loader.fileLoads()) {
+                writeRow(pw, load);
+            }
+            pw.println("</tbody></table>");
+        }
+    }
+
+    private static void writeRow(PrintWriter pw, CsvFileLoadMetrics load) {
+        pw.print("<tr>");
+        cell(pw, escape(load.file()));
+        cell(pw, load.state() + load.failure().map(f -> ": " + escape(f)).orElse(""));
+        cell(pw, Long.toString(load.rowsParsed()));
+        cell(pw, Long.toString(load.rowsInserted()));
+        cell(pw, load.bytesRead() + load.totalBytes().stream().mapToObj(t -> " / " + t).findFirst().orElse(""));
+        cell(pw, Long.toString(load.parseErrors()));
+        cell(pw, format(load.parseTime()));
+        cell(pw, format(load.databaseTime()));
+        cell(pw, load.parseTime().compareTo(load.databaseTime()) > 0 ? "parsing" : "database");
+        cell(pw, String.format(Locale.ROOT, "%.0f", load.rowsPerSecond()));
+        cell(pw, String.format(Locale.ROOT, "%.0f", load.bytesPerSecond()));
+        cell(pw, load.eta().map(CsvLoaderWebConsolePlugin::format).orElse("-"));
+        cell(pw, histogram(load.batchLatencyHistogram()));
+        pw.println("</tr>");
+    }
+
+    private static void cell(PrintWriter pw, String html) {
+        pw.print("<td>");
+        pw.print(html);
+        pw.print("</td>");
+    }
+
+    private static String histogram(long[] histogram) {
+        List<Long> bounds = CsvFileLoadMetrics.BATCH_LATENCY_BOUNDS_MILLIS;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) {
+                continue;
+            }
+            if (!sb.isEmpty()) {
+                sb.append(", ");
+            }
+            sb.append(i < bounds.size() ? "&le;" + bounds.get(i) : "&gt;" + bounds.get(bounds.size() - 1));
+            sb.append("ms: ").append(histogram[i]);
+        }
+        return sb.isEmpty() ? "-" : sb.toString();
+    }
+
+    private static String format(Duration duration) {
+        return String.format(Locale.ROOT, "%d:%02d:%02d.%03d", duration.toHours(), duration.toMinutesPart(),
+                duration.toSecondsPart(), duration.toMillisPart());
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+            case '<' -> sb.append("&lt;");
+            case '>' -> sb.append("&gt;");
+            case '&' -> sb.append("&amp;");
+            case '"' -> sb.append("&quot;");
+            case '\'' -> sb.append("&#39;");
+            default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}